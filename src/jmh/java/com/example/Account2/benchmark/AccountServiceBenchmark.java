@@ -0,0 +1,49 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AccountService.createAccount
+ * 계좌 생성에는 계좌 키가 없으므로(경합 지점은 계좌 번호 발급기 하나) 분포 파라미터가 없다.
+ * 사용자당 계좌 10개 제한에 걸리지 않도록 사용자를 10번씩 돌아가며 사용한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AccountServiceBenchmark {
+    private static final int USERS = 500_000;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        accountService = context.getBean(AccountService.class);
+        BenchmarkFixtures.insertUsers(context.getBean(JdbcTemplate.class), USERS);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object createAccount() {
+        long userId = BenchmarkFixtures.FIRST_ID + (sequence.getAndIncrement() / 10) % USERS;
+        try {
+            return accountService.createAccount(userId, 1000L);
+        } catch (AccountException e) {
+            return e;
+        }
+    }
+}
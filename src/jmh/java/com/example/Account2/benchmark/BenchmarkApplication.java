@@ -0,0 +1,36 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.Account2Application;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 벤치마크용 애플리케이션 컨텍스트 (웹 서버 없음, H2 + 내장 Redis)
+ */
+public final class BenchmarkApplication {
+    private BenchmarkApplication() {
+    }
+
+    public static ConfigurableApplicationContext start(Map<String, Object> overrides) {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.redis.port", 6390);
+        properties.put("spring.datasource.url", "jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1");
+        properties.put("spring.jpa.properties.hibernate.show_sql", false);
+        properties.put("spring.jpa.properties.hibernate.format_sql", false);
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+
+        return new SpringApplicationBuilder(Account2Application.class)
+                .web(WebApplicationType.NONE)
+                .properties(properties)
+                .run();
+    }
+
+    public static ConfigurableApplicationContext start() {
+        return start(Map.of());
+    }
+}
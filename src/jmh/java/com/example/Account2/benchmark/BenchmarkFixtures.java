@@ -0,0 +1,94 @@
+package com.example.Account2.benchmark;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC 배치로 벤치마크 데이터를 적재한다.
+ * data.sql 의 사용자(1 ~ 3)와 겹치지 않도록 id 는 FIRST_ID 부터 사용한다.
+ */
+public final class BenchmarkFixtures {
+    public static final long FIRST_ID = 1_000_000L;
+    public static final long FIRST_ACCOUNT_NUMBER = 9_000_000_000L;
+    private static final int BATCH_SIZE = 10_000;
+
+    private BenchmarkFixtures() {
+    }
+
+    public static void insertUsers(JdbcTemplate jdbcTemplate, int count) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{FIRST_ID + i, "bench" + i, now, now});
+            if (rows.size() == BATCH_SIZE) {
+                flush(jdbcTemplate, "insert into account_user(id, name, created_at, updated_at) " +
+                        "values (?, ?, ?, ?)", rows);
+            }
+        }
+        flush(jdbcTemplate, "insert into account_user(id, name, created_at, updated_at) " +
+                "values (?, ?, ?, ?)", rows);
+    }
+
+    /**
+     * 계좌 i 는 사용자 (i % userCount) 의 소유이며 번호는 accountNumber(i) 이다.
+     */
+    public static void insertAccounts(JdbcTemplate jdbcTemplate, int count, int userCount,
+                                      long balance) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "insert into account(id, account_user_id, account_number, account_status, " +
+                "balance, registered_at, created_at, updated_at, version) " +
+                "values (?, ?, ?, 'IN_USE', ?, ?, ?, ?, 0)";
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            rows.add(new Object[]{FIRST_ID + i, userId(i, userCount), accountNumber(i),
+                    balance, now, now, now});
+            if (rows.size() == BATCH_SIZE) {
+                flush(jdbcTemplate, sql, rows);
+            }
+        }
+        flush(jdbcTemplate, sql, rows);
+    }
+
+    /**
+     * 거래 i 는 계좌 (i % accountCount) 의 USE 성공 거래이며 번호는 transactionId(i) 이다.
+     */
+    public static void insertTransactions(JdbcTemplate jdbcTemplate, long count, int accountCount) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = "insert into transaction(id, account_id, transaction_type, " +
+                "transaction_result_type, amount, balance_sanpshot, transaction_id, " +
+                "transacted_at, created_at, updated_at) " +
+                "values (?, ?, 'USE', 'S', 100, 0, ?, ?, ?, ?)";
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        for (long i = 0; i < count; i++) {
+            rows.add(new Object[]{FIRST_ID + i, FIRST_ID + i % accountCount,
+                    transactionId(i), now, now, now});
+            if (rows.size() == BATCH_SIZE) {
+                flush(jdbcTemplate, sql, rows);
+            }
+        }
+        flush(jdbcTemplate, sql, rows);
+    }
+
+    public static long transactionId(long transactionIndex) {
+        return FIRST_ID + transactionIndex;
+    }
+
+    public static long userId(int accountIndex, int userCount) {
+        return FIRST_ID + accountIndex % userCount;
+    }
+
+    public static String accountNumber(int accountIndex) {
+        return String.valueOf(FIRST_ACCOUNT_NUMBER + accountIndex);
+    }
+
+    private static void flush(JdbcTemplate jdbcTemplate, String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+            rows.clear();
+        }
+    }
+}
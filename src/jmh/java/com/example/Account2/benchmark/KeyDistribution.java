@@ -0,0 +1,21 @@
+package com.example.Account2.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 벤치마크 스레드가 계좌를 고르는 방식
+ */
+public enum KeyDistribution {
+    /**
+     * 모든 스레드가 하나의 계좌에 몰린다.
+     */
+    HOT,
+    /**
+     * 전체 계좌에서 균등하게 고른다.
+     */
+    UNIFORM;
+
+    public int next(int size) {
+        return this == HOT ? 0 : ThreadLocalRandom.current().nextInt(size);
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.service.LockService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Account2.benchmark.BenchmarkFixtures.accountNumber;
+
+/**
+ * LockService lock/unlock (내장 Redis)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LockServiceBenchmark {
+    private static final int ACCOUNTS = 1_000;
+
+    @Param({"HOT", "UNIFORM"})
+    public KeyDistribution distribution;
+
+    private ConfigurableApplicationContext context;
+    private LockService lockService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        lockService = context.getBean(LockService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object lockAndUnlock() {
+        String accountNumber = accountNumber(distribution.next(ACCOUNTS));
+        try {
+            lockService.lock(accountNumber);
+        } catch (AccountException e) {
+            return e;
+        }
+        lockService.unlock(accountNumber);
+        return accountNumber;
+    }
+}
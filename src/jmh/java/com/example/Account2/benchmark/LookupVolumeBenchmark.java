@@ -0,0 +1,62 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 데이터 양에 따른 findByAccountNumber / findByTransactionId 지연 시간
+ * 거래는 계좌의 10배를 적재한다. (1M 계좌 = 10M 거래, -Xmx 를 충분히 줘야 한다.)
+ * unique index 가 있으면 데이터가 늘어나도 지연 시간이 거의 일정해야 한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+public class LookupVolumeBenchmark {
+    private static final int USERS = 1_000;
+    private static final int TRANSACTIONS_PER_ACCOUNT = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int accounts;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private long transactions;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactions = (long) accounts * TRANSACTIONS_PER_ACCOUNT;
+        BenchmarkFixtures.insertUsers(jdbcTemplate, USERS);
+        BenchmarkFixtures.insertAccounts(jdbcTemplate, accounts, USERS, 0L);
+        BenchmarkFixtures.insertTransactions(jdbcTemplate, transactions, accounts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object findByAccountNumber() {
+        return accountRepository.findByAccountNumber(BenchmarkFixtures.accountNumber(
+                ThreadLocalRandom.current().nextInt(accounts)));
+    }
+
+    @Benchmark
+    public Object findByTransactionId() {
+        return transactionRepository.findByTransactionId(BenchmarkFixtures.transactionId(
+                ThreadLocalRandom.current().nextLong(transactions)));
+    }
+}
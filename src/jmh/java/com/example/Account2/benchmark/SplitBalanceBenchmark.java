@@ -0,0 +1,89 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.controller.TransactionController;
+import com.example.Account2.dto.CancelBalance;
+import com.example.Account2.dto.TransactionIdFormat;
+import com.example.Account2.dto.UseBalance;
+import com.example.Account2.exception.AccountException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.Account2.benchmark.BenchmarkFixtures.accountNumber;
+import static com.example.Account2.benchmark.BenchmarkFixtures.userId;
+
+/**
+ * 한 계좌에 1000 개 스레드가 동시에 쓰는 경우 분할 잔액 on/off 비교
+ * off 는 기본 전략(redis-lock)으로 계좌 잠금을 두고 경합하고,
+ * on 은 잠금 없이 하위 잔액 슬롯(slots 개)에 나눠 쓴다.
+ * 취소는 미리 적재한 같은 USE 거래를 반복해서 취소한다. (입금 경로)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(1000)
+@Fork(1)
+public class SplitBalanceBenchmark {
+    private static final long AMOUNT = 100L;
+
+    @Param({"false", "true"})
+    public boolean split;
+
+    @Param({"16"})
+    public int slots;
+
+    private ConfigurableApplicationContext context;
+    private TransactionController transactionController;
+    private String transactionId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of(
+                "account.balance.split-balance.account-numbers", split ? accountNumber(0) : "",
+                "account.balance.split-balance.slots", slots));
+        transactionController = context.getBean(TransactionController.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkFixtures.insertUsers(jdbcTemplate, 1);
+        BenchmarkFixtures.insertAccounts(jdbcTemplate, 1, 1, Long.MAX_VALUE / 4);
+        BenchmarkFixtures.insertTransactions(jdbcTemplate, 1, 1);
+        transactionId = TransactionIdFormat.format(BenchmarkFixtures.transactionId(0));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        public long succeeded;
+        public long rejected;
+    }
+
+    @Benchmark
+    public void useBalance(Outcome outcome) {
+        try {
+            transactionController.useBalance(
+                    new UseBalance.Request(userId(0, 1), accountNumber(0), AMOUNT));
+            outcome.succeeded++;
+        } catch (AccountException e) {
+            outcome.rejected++;
+        }
+    }
+
+    @Benchmark
+    public void cancelBalance(Outcome outcome) {
+        try {
+            transactionController.useBalance(
+                    new CancelBalance.Request(transactionId, accountNumber(0), AMOUNT));
+            outcome.succeeded++;
+        } catch (AccountException e) {
+            outcome.rejected++;
+        }
+    }
+}
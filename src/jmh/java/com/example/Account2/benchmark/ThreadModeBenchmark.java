@@ -0,0 +1,104 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.controller.TransactionController;
+import com.example.Account2.dto.UseBalance;
+import com.example.Account2.exception.AccountException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.Account2.benchmark.BenchmarkFixtures.accountNumber;
+import static com.example.Account2.benchmark.BenchmarkFixtures.userId;
+
+/**
+ * 플랫폼 스레드 / 가상 스레드 요청 처리 비교
+ * 한 번의 호출마다 concurrency 개의 잔액 사용 요청을 동시에 보내고 모두 끝날 때까지 기다린다.
+ * 플랫폼 스레드는 Tomcat 기본 max-threads(200) 크기의 풀, 가상 스레드는 요청마다 새 스레드로 처리한다.
+ * 요청은 컨트롤러 빈(LockAopAspect 포함)을 직접 호출한다.
+ * succeeded/rejected 보조 지표로 초당 처리 건수와 잠금 대기 초과 등 실패 건수를 본다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Djdk.tracePinnedThreads=short")
+public class ThreadModeBenchmark {
+    private static final int PLATFORM_THREADS = 200;
+    private static final int USERS = 100;
+    private static final int ACCOUNTS = 10_000;
+    private static final long AMOUNT = 100L;
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    @Param({"200", "1000", "5000"})
+    public int concurrency;
+
+    @Param({"HOT", "UNIFORM"})
+    public KeyDistribution distribution;
+
+    private ConfigurableApplicationContext context;
+    private TransactionController transactionController;
+    private ExecutorService executorService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of(
+                "spring.threads.virtual.enabled", virtualThreads,
+                "account.redis.subscription-connection-pool-size", virtualThreads ? 200 : 50,
+                "account.redis.subscriptions-per-connection", virtualThreads ? 10 : 5));
+        transactionController = context.getBean(TransactionController.class);
+        executorService = virtualThreads
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(PLATFORM_THREADS);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkFixtures.insertUsers(jdbcTemplate, USERS);
+        BenchmarkFixtures.insertAccounts(jdbcTemplate, ACCOUNTS, USERS, Long.MAX_VALUE / 4);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executorService.shutdownNow();
+        context.close();
+    }
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Outcome {
+        public long succeeded;
+        public long rejected;
+    }
+
+    @Benchmark
+    public void burst(Outcome outcome) throws Exception {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>(concurrency);
+        for (int n = 0; n < concurrency; n++) {
+            int i = distribution.next(ACCOUNTS);
+            futures.add(executorService.submit(() -> {
+                try {
+                    transactionController.useBalance(
+                            new UseBalance.Request(userId(i, USERS), accountNumber(i), AMOUNT));
+                    succeeded.incrementAndGet();
+                } catch (AccountException e) {
+                    rejected.incrementAndGet();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        outcome.succeeded += succeeded.get();
+        outcome.rejected += rejected.get();
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.dto.TransactionHistory;
+import com.example.Account2.service.TransactionHistoryService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 한 계좌 거래 내역의 page 번째 페이지 지연 시간 (keyset 페이지는 깊이와 관계없이 같아야 한다.)
+ * 커서는 page * SIZE 번째 최신 거래로 미리 만들어 둔다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionHistoryBenchmark {
+    private static final long TRANSACTIONS = 1_000_000L;
+    private static final int SIZE = TransactionHistory.DEFAULT_SIZE;
+
+    @Param({"0", "100", "10000"})
+    public int page;
+
+    private ConfigurableApplicationContext context;
+    private TransactionHistoryService transactionHistoryService;
+    private TransactionHistory.Query query;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        transactionHistoryService = context.getBean(TransactionHistoryService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkFixtures.insertUsers(jdbcTemplate, 1);
+        BenchmarkFixtures.insertAccounts(jdbcTemplate, 1, 1, 0L);
+        BenchmarkFixtures.insertTransactions(jdbcTemplate, TRANSACTIONS, 1);
+
+        String cursor = null;
+        if (page > 0) {
+            //최신순이므로 page * SIZE 번째 거래는 뒤에서부터 센다.
+            long id = BenchmarkFixtures.FIRST_ID + TRANSACTIONS - (long) page * SIZE;
+            Timestamp transactedAt = jdbcTemplate.queryForObject(
+                    "select transacted_at from transaction where id = ?", Timestamp.class, id);
+            cursor = new TransactionHistory.Cursor(transactedAt.toLocalDateTime(), id).encode();
+        }
+        query = transactionHistoryService.prepare(BenchmarkFixtures.accountNumber(0), cursor, SIZE);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int history() {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(16 * 1024);
+        transactionHistoryService.write(query, outputStream);
+        return outputStream.size();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.domain.Account;
+import com.example.Account2.domain.Transaction;
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.TransactionRepository;
+import com.example.Account2.service.TransactionIdGenerator;
+import com.example.Account2.type.TransactionResultType;
+import com.example.Account2.type.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction 행 삽입 처리량
+ * allocationSize=50, batchSize=1 이 기존(Hibernate 6 기본 pooled transaction_seq 50 + 단건 INSERT)에 해당한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(TransactionInsertBenchmark.ROWS)
+public class TransactionInsertBenchmark {
+    static final int ROWS = 1_000;
+
+    @Param({"50", "100"})
+    public int allocationSize;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private TransactionRepository transactionRepository;
+    private TransactionIdGenerator transactionIdGenerator;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of(
+                "account.id.allocation-size.transaction_seq", allocationSize,
+                "spring.jpa.properties.hibernate.jdbc.batch_size", batchSize));
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        transactionIdGenerator = context.getBean(TransactionIdGenerator.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkFixtures.insertUsers(jdbcTemplate, 1);
+        BenchmarkFixtures.insertAccounts(jdbcTemplate, 1, 1, 0L);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object insertTransactions() {
+        return transactionTemplate.execute(status -> {
+            Account account = accountRepository.getReferenceById(BenchmarkFixtures.FIRST_ID);
+            List<Transaction> transactions = new ArrayList<>(ROWS);
+            for (int i = 0; i < ROWS; i++) {
+                transactions.add(Transaction.builder()
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .account(account)
+                        .amount(100L)
+                        .balanceSanpshot(0L)
+                        .transactionId(transactionIdGenerator.nextId())
+                        .transactedAt(LocalDateTime.now())
+                        .build());
+            }
+            return transactionRepository.saveAll(transactions);
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.dto.TransactionIdFormat;
+import com.example.Account2.service.TransactionService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TransactionService.queryTransaction 캐시 적용 전후 지연 시간
+ * 조회의 90% 는 최근 거래(HOT_TRANSACTIONS 건)에 몰리고 나머지는 전체 거래에서 고른다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TransactionQueryBenchmark {
+    private static final int USERS = 1_000;
+    private static final int ACCOUNTS = 10_000;
+    private static final long TRANSACTIONS = 1_000_000L;
+    private static final int HOT_TRANSACTIONS = 10_000;
+
+    @Param({"true", "false"})
+    public boolean cacheEnabled;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private String[] transactionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of(
+                "account.cache.transaction.enabled", cacheEnabled));
+        transactionService = context.getBean(TransactionService.class);
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkFixtures.insertUsers(jdbcTemplate, USERS);
+        BenchmarkFixtures.insertAccounts(jdbcTemplate, ACCOUNTS, USERS, 0L);
+        BenchmarkFixtures.insertTransactions(jdbcTemplate, TRANSACTIONS, ACCOUNTS);
+
+        transactionIds = new String[(int) TRANSACTIONS];
+        for (int i = 0; i < transactionIds.length; i++) {
+            transactionIds[i] = TransactionIdFormat.format(BenchmarkFixtures.transactionId(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object queryTransaction() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(10) < 9
+                ? transactionIds.length - 1 - random.nextInt(HOT_TRANSACTIONS)
+                : random.nextInt(transactionIds.length);
+        return transactionService.queryTransaction(transactionIds[index]);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.Account2.benchmark;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.service.LockService;
+import com.example.Account2.service.TransactionService;
+import com.example.Account2.type.BalanceStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.example.Account2.benchmark.BenchmarkFixtures.accountNumber;
+import static com.example.Account2.benchmark.BenchmarkFixtures.userId;
+
+/**
+ * TransactionService 잔액 사용/취소/조회
+ * 잠금이 필요한 전략에서는 컨트롤러(LockAopAspect)와 같이 LockService 로 감싸서 호출한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class TransactionServiceBenchmark {
+    private static final int USERS = 100;
+    private static final int ACCOUNTS = 1_000;
+    private static final long AMOUNT = 100L;
+
+    @Param({"HOT", "UNIFORM"})
+    public KeyDistribution distribution;
+
+    @Param({"REDIS_LOCK", "ATOMIC_SQL", "OPTIMISTIC"})
+    public BalanceStrategy strategy;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private LockService lockService;
+    private boolean requiresLock;
+    private String[] transactionIds;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkApplication.start(Map.of(
+                "account.balance.strategy", strategy.name()));
+        transactionService = context.getBean(TransactionService.class);
+        lockService = context.getBean(LockService.class);
+        requiresLock = context.getBean(AccountProperties.class)
+                .getBalance().requiresAccountLock();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        BenchmarkFixtures.insertUsers(jdbcTemplate, USERS);
+        BenchmarkFixtures.insertAccounts(jdbcTemplate, ACCOUNTS, USERS, Long.MAX_VALUE / 4);
+
+        transactionIds = new String[ACCOUNTS];
+        for (int i = 0; i < ACCOUNTS; i++) {
+            transactionIds[i] = transactionService.useBalance(
+                    userId(i, USERS), accountNumber(i), AMOUNT).getTransactionId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object useBalance() {
+        int i = distribution.next(ACCOUNTS);
+        return locked(accountNumber(i), () ->
+                transactionService.useBalance(userId(i, USERS), accountNumber(i), AMOUNT));
+    }
+
+    @Benchmark
+    public Object cancelBalance() {
+        int i = distribution.next(ACCOUNTS);
+        return locked(accountNumber(i), () ->
+                transactionService.cancelBalance(transactionIds[i], accountNumber(i), AMOUNT));
+    }
+
+    @Benchmark
+    public Object queryTransaction() {
+        return transactionService.queryTransaction(transactionIds[distribution.next(ACCOUNTS)]);
+    }
+
+    private Object locked(String accountNumber, Supplier<TransactionDto> operation) {
+        try {
+            if (!requiresLock) {
+                return operation.get();
+            }
+            lockService.lock(accountNumber);
+            try {
+                return operation.get();
+            } finally {
+                lockService.unlock(accountNumber);
+            }
+        } catch (AccountException e) {
+            //잠금 획득 실패 등 업무 오류도 한 번의 처리로 센다.
+            return e;
+        }
+    }
+}
@@ -7,5 +7,13 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
-    long tryLockTime() default  5000L;
+    /**
+     * 잠금을 기다리는 최대 시간 (ms)
+     */
+    long tryLockTime() default 1000L;
+
+    /**
+     * 해제하지 못했을 때 잠금이 풀리는 시간 (ms)
+     */
+    long leaseTime() default 15000L;
 }
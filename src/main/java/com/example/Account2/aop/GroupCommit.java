@@ -0,0 +1,18 @@
+package com.example.Account2.aop;
+
+import com.example.Account2.type.TransactionType;
+
+import java.lang.annotation.*;
+
+/**
+ * 그룹 커밋이 켜져 있으면 메서드 대신 GroupCommitter 로 처리한다.
+ * 대상 메서드는 accountNumber, amount 와
+ * USE 는 userId, CANCEL 은 transactionId 라는 이름의 파라미터를 가져야 한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface GroupCommit {
+    TransactionType value();
+}
@@ -0,0 +1,17 @@
+package com.example.Account2.aop;
+
+import com.example.Account2.type.TransactionType;
+
+import java.lang.annotation.*;
+
+/**
+ * Idempotency-Key 헤더가 있으면 같은 키의 재요청은 다시 실행하지 않고 처음 응답을 돌려준다.
+ * 키는 value(거래 종류) 별로 구분한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Idempotent {
+    TransactionType value();
+}
@@ -0,0 +1,14 @@
+package com.example.Account2.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * optimistic 전략에서 @Version 충돌 시 메서드 전체(트랜잭션 포함)를 재시도한다.
+ * 대상 메서드는 accountNumber 라는 이름의 파라미터를 가져야 한다.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface OptimisticRetry {
+}
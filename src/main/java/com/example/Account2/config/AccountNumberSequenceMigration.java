@@ -0,0 +1,51 @@
+package com.example.Account2.config;
+
+import com.example.Account2.repository.AccountNumberSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import org.flywaydb.core.api.MigrationVersion;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * V9 : account_number_seq 생성 (Flyway 가 Spring bean 으로 받아 실행한다.)
+ * 기존 계좌 번호와 겹치지 않도록 max(account_number) 다음 번호부터 시작하고,
+ * increment 는 account.numbering.block-size 와 같게 만든다.
+ * (로컬 H2 는 data.sql 이 만든다.)
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNumberSequenceMigration extends BaseJavaMigration {
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+
+    private final AccountProperties accountProperties;
+
+    @Override
+    public MigrationVersion getVersion() {
+        return MigrationVersion.fromVersion("9");
+    }
+
+    @Override
+    public String getDescription() {
+        return "create account number seq";
+    }
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        try (Statement statement = context.getConnection().createStatement()) {
+            long start = FIRST_ACCOUNT_NUMBER;
+            try (ResultSet resultSet = statement.executeQuery(
+                    "select max(cast(account_number as bigint)) from account")) {
+                if (resultSet.next() && resultSet.getObject(1) != null) {
+                    start = Math.max(start, resultSet.getLong(1) + 1);
+                }
+            }
+            statement.execute("create sequence " + AccountNumberSequenceRepository.ACCOUNT_NUMBER_SEQUENCE +
+                    " start with " + start +
+                    " increment by " + accountProperties.getNumbering().getBlockSize());
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package com.example.Account2.config;
+
+import com.example.Account2.type.BalanceStrategy;
+import com.example.Account2.type.OverflowPolicy;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * application.yml 의 account.* 설정
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "account")
+public class AccountProperties {
+    private final Numbering numbering = new Numbering();
+    private final Lock lock = new Lock();
+    private final Balance balance = new Balance();
+    private final TransactionId transactionId = new TransactionId();
+    private final Id id = new Id();
+    private final Cache cache = new Cache();
+    private final Redis redis = new Redis();
+    private final Journal journal = new Journal();
+    private final FailureLog failureLog = new FailureLog();
+    private final Idempotency idempotency = new Idempotency();
+
+    @Getter
+    @Setter
+    public static class Numbering {
+        /**
+         * 노드가 한 번에 선점하는 계좌 번호 개수.
+         * account_number_seq 의 increment 값과 같아야 한다.
+         */
+        private int blockSize = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Lock {
+        /**
+         * JVM 내부 잠금 테이블의 stripe 개수
+         */
+        private int stripes = 1024;
+        /**
+         * 도착 순서대로 잠금을 준다. (JVM 내부 fair ReentrantLock + Redis RFairLock)
+         */
+        private boolean fair = false;
+        /**
+         * 계좌 하나의 잠금을 기다릴 수 있는 최대 요청 수, 넘으면 바로 거절한다. (0 이면 제한 없음)
+         */
+        private int maxQueueDepth = 64;
+        private final Lease lease = new Lease();
+        private final Profiler profiler = new Profiler();
+    }
+
+    /**
+     * Redis 잠금 lease
+     * watchdog=true 면 고정 leaseTime 대신 watchdogTimeout 짧은 lease 를 잡고,
+     * 잠금을 쥔 동안(요청이 끝나 해제할 때까지) Redisson watchdog 이 timeout/3 마다 연장한다.
+     * 노드가 죽으면 watchdogTimeout 안에 잠금이 풀린다.
+     */
+    @Getter
+    @Setter
+    public static class Lease {
+        private boolean watchdog = false;
+        private Duration watchdogTimeout = Duration.ofSeconds(5);
+        /**
+         * 커밋 직전에 fencing token 을 확인해 만료된 잠금 보유자의 쓰기를 거절한다.
+         */
+        private boolean fencing = false;
+    }
+
+    /**
+     * 잠금 경합 프로파일러 (/actuator/lockcontention)
+     */
+    @Getter
+    @Setter
+    public static class Profiler {
+        private boolean enabled = true;
+        /**
+         * 추적하는 계좌 수 (Space-Saving counter 개수), 계좌 수와 관계없이 메모리는 이만큼만 쓴다.
+         */
+        private int capacity = 100;
+        /**
+         * 대기 시간이 이 이상이거나 잠금에 실패한 경우만 경합으로 센다.
+         */
+        private Duration contendedThreshold = Duration.ofMillis(1);
+        /**
+         * 대기 시간 히스토그램의 최대값 (이보다 긴 대기는 최대값으로 기록)
+         */
+        private Duration maxWait = Duration.ofSeconds(60);
+    }
+
+    @Getter
+    @Setter
+    public static class Balance {
+        private BalanceStrategy strategy = BalanceStrategy.REDIS_LOCK;
+        private final Optimistic optimistic = new Optimistic();
+        private final Actor actor = new Actor();
+        private final GroupCommit groupCommit = new GroupCommit();
+        private final SplitBalance splitBalance = new SplitBalance();
+
+        public boolean requiresAccountLock() {
+            return strategy == BalanceStrategy.REDIS_LOCK;
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Optimistic {
+        /**
+         * 첫 시도를 포함한 최대 시도 횟수
+         */
+        private int maxAttempts = 5;
+        private Duration initialBackoff = Duration.ofMillis(5);
+        private Duration maxBackoff = Duration.ofMillis(100);
+    }
+
+    @Getter
+    @Setter
+    public static class Actor {
+        /**
+         * 단일 스레드 샤드 개수 (계좌 번호 hash 로 배정)
+         */
+        private int shards = 16;
+        /**
+         * 샤드별 대기열 크기, 가득 차면 요청을 거절한다.
+         */
+        private int queueCapacity = 10_000;
+        /**
+         * 한 트랜잭션으로 커밋하는 최대 명령 수
+         */
+        private int maxBatch = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class GroupCommit {
+        private boolean enabled = false;
+        /**
+         * 첫 명령이 들어온 뒤 다른 요청을 더 기다리는 최대 시간
+         */
+        private Duration window = Duration.ofMillis(2);
+        /**
+         * 한 트랜잭션으로 커밋하는 최대 명령 수 (채워지면 window 를 기다리지 않는다.)
+         */
+        private int maxBatch = 50;
+        /**
+         * 커밋을 기다리는 명령의 최대 수, 가득 차면 요청을 거절한다.
+         */
+        private int queueCapacity = 10_000;
+    }
+
+    /**
+     * 분할 잔액 (hot account)
+     * 지정한 계좌의 잔액을 slots 개의 하위 잔액 행으로 나눠 한 행에 쓰기가 몰리지 않게 한다.
+     * 이 계좌들은 전략과 관계없이 잠금 없이 원자적 UPDATE 로 처리된다.
+     */
+    @Getter
+    @Setter
+    public static class SplitBalance {
+        private Set<String> accountNumbers = new HashSet<>();
+        private int slots = 16;
+        /**
+         * 하위 잔액을 본 잔액으로 모으는 주기
+         */
+        private Duration consolidateInterval = Duration.ofMinutes(1);
+
+        public boolean isSplit(String accountNumber) {
+            return accountNumbers.contains(accountNumber);
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class TransactionId {
+        /**
+         * 거래 번호 발급 노드 번호 (0 ~ 1023), 노드마다 달라야 한다.
+         */
+        private int nodeId = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Id {
+        /**
+         * 시퀀스별 allocationSize (pooled optimizer 가 한 번에 예약하는 PK 개수)
+         * DB 시퀀스의 increment 값과 같아야 한다.
+         */
+        private Map<String, Integer> allocationSize = new LinkedHashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        private final TransactionCache transaction = new TransactionCache();
+        private final AccountListCache accountList = new AccountListCache();
+    }
+
+    @Getter
+    @Setter
+    public static class TransactionCache {
+        private boolean enabled = true;
+        /**
+         * 노드 내(L1) 캐시 최대 건수
+         */
+        private long maximumSize = 100_000;
+        /**
+         * Redis(L2) 캐시 유지 시간
+         */
+        private Duration remoteTtl = Duration.ofHours(1);
+    }
+
+    @Getter
+    @Setter
+    public static class AccountListCache {
+        private boolean enabled = true;
+        private long maximumSize = 100_000;
+        /**
+         * 항목 최대 유지 시간 (변경 감지는 조회마다 읽는 공유 세대가 맡는다.)
+         */
+        private Duration expireAfterWrite = Duration.ofMinutes(10);
+    }
+
+    /**
+     * Redisson 커넥션 풀 (기본값은 Redisson 기본값)
+     * 가상 스레드 모드에서는 동시에 잠금을 기다리는 계좌 수가 Tomcat 스레드 수(200)에 묶이지 않으므로
+     * 구독 커넥션(잠금 해제 알림)을 더 크게 잡는다.
+     */
+    @Getter
+    @Setter
+    public static class Redis {
+        private int connectionPoolSize = 64;
+        private int subscriptionConnectionPoolSize = 50;
+        private int subscriptionsPerConnection = 5;
+    }
+
+    /**
+     * 거래 저널 (메모리 매핑 세그먼트 파일)
+     */
+    @Getter
+    @Setter
+    public static class Journal {
+        private boolean enabled = false;
+        private String directory = "journal";
+        /**
+         * 세그먼트 파일 하나의 크기 (2GB 미만)
+         */
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        /**
+         * 레코드마다 디스크에 내린 뒤 응답한다.
+         */
+        private boolean force = true;
+        /**
+         * 기동 시 저널을 재생해 DB 에 없는 거래와 그 잔액 변경을 복구한다.
+         */
+        private boolean replayOnStartup = false;
+    }
+
+    /**
+     * 실패 거래(F) 기록
+     * async=true 면 요청 스레드는 대기열에 넣기만 하고 백그라운드 스레드가 묶어서 저장한다.
+     */
+    @Getter
+    @Setter
+    public static class FailureLog {
+        private boolean async = true;
+        private int queueCapacity = 10_000;
+        /**
+         * 한 트랜잭션으로 저장하는 최대 건수
+         */
+        private int maxBatch = 500;
+        /**
+         * 대기열이 가득 찼을 때 요청 스레드가 빈자리를 기다리는 최대 시간 (0 이면 기다리지 않음)
+         */
+        private Duration offerTimeout = Duration.ZERO;
+        private OverflowPolicy overflow = OverflowPolicy.DROP;
+        private String spillFile = "failed-transactions.spill";
+        /**
+         * 대기열이 이만큼 비어 있으면 spill 파일을 다시 기록한다.
+         */
+        private Duration idleInterval = Duration.ofSeconds(1);
+    }
+
+    /**
+     * Idempotency-Key 중복 요청 저장소 (Redis 해시)
+     */
+    @Getter
+    @Setter
+    public static class Idempotency {
+        private boolean enabled = true;
+        /**
+         * 키와 처음 응답을 보관하는 시간
+         */
+        private Duration ttl = Duration.ofHours(24);
+        /**
+         * 처리 중 선점을 보관하는 시간, 노드가 응답 기록 전에 죽어도 이 시간 뒤에는 같은 키로 다시 시도할 수 있다.
+         * 잠금 대기(tryLockTime)와 잠금 lease 를 합친 시간보다 길게 잡는다.
+         */
+        private Duration inProgressTtl = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.Account2.config;
+
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * account.id.allocation-size 설정을 PooledSequenceGenerator 가 읽을 수 있도록 Hibernate 설정으로 넘긴다.
+ */
+@Configuration
+public class JpaIdConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer allocationSizeCustomizer(
+            AccountProperties accountProperties) {
+        return hibernateProperties -> accountProperties.getId().getAllocationSize()
+                .forEach((sequenceName, allocationSize) -> hibernateProperties.put(
+                        PooledSequenceGenerator.ALLOCATION_SIZE_PREFIX + sequenceName,
+                        allocationSize));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.Account2.config;
+
+import com.example.Account2.type.DelayDistribution;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 부하 테스트용 지연 주입 설정 (latency-injection 프로파일에서만 사용)
+ * endpoints 의 key 는 요청 매핑 패턴이다. ex) "[/transaction/use]"
+ */
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "latency-injection")
+public class LatencyInjectionProperties {
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private DelayDistribution distribution = DelayDistribution.FIXED;
+        /**
+         * 지연을 주입할 요청의 비율 (0.0 ~ 1.0)
+         */
+        private double probability = 1.0;
+        /**
+         * FIXED 의 지연 시간, EXPONENTIAL 의 평균 지연 시간
+         */
+        private Duration delay = Duration.ZERO;
+        private Duration min = Duration.ZERO;
+        private Duration max = Duration.ofSeconds(10);
+    }
+}
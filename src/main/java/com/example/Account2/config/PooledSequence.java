@@ -0,0 +1,22 @@
+package com.example.Account2.config;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * PooledSequenceGenerator 로 PK 를 만든다. (@GeneratedValue 없이 @Id 필드에 붙인다.)
+ * allocationSize 는 account.id.allocation-size.{name} 설정을 따른다.
+ */
+@IdGeneratorType(PooledSequenceGenerator.class)
+@Target({ElementType.FIELD, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PooledSequence {
+    /**
+     * 시퀀스 이름
+     */
+    String name();
+}
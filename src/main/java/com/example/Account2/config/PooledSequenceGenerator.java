@@ -0,0 +1,41 @@
+package com.example.Account2.config;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.id.enhanced.StandardOptimizerDescriptor;
+import org.hibernate.id.factory.spi.CustomIdGeneratorCreationContext;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.lang.reflect.Member;
+import java.util.Properties;
+
+/**
+ * pooled optimizer 를 쓰는 시퀀스 PK 생성기 (@PooledSequence)
+ * allocationSize 는 어노테이션 상수 대신 설정(account.id.allocation-size.시퀀스명)에서 읽는다.
+ */
+public class PooledSequenceGenerator extends SequenceStyleGenerator {
+    public static final String ALLOCATION_SIZE_PREFIX = "account.id.allocation-size.";
+
+    private final String sequenceName;
+
+    public PooledSequenceGenerator(PooledSequence config,
+                                   Member annotatedMember,
+                                   CustomIdGeneratorCreationContext context) {
+        this.sequenceName = config.name();
+    }
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) {
+        parameters.setProperty(SEQUENCE_PARAM, sequenceName);
+        Object allocationSize = serviceRegistry.getService(ConfigurationService.class)
+                .getSettings()
+                .get(ALLOCATION_SIZE_PREFIX + sequenceName);
+        if (allocationSize != null) {
+            parameters.setProperty(INCREMENT_PARAM, allocationSize.toString());
+        }
+        parameters.setProperty(OPT_PARAM, StandardOptimizerDescriptor.POOLED.getExternalName());
+
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
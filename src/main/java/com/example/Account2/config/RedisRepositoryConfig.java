@@ -16,9 +16,16 @@ public class RedisRepositoryConfig {
     private int redistPort;
 
     @Bean
-    public RedissonClient redissonClient(){
+    public RedissonClient redissonClient(AccountProperties accountProperties){
+        AccountProperties.Redis redis = accountProperties.getRedis();
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://"+redisHost+":"+redistPort);
+        //account.lock.lease.watchdog 을 쓸 때의 lease
+        config.setLockWatchdogTimeout(accountProperties.getLock().getLease()
+                .getWatchdogTimeout().toMillis());
+        config.useSingleServer().setAddress("redis://"+redisHost+":"+redistPort)
+                .setConnectionPoolSize(redis.getConnectionPoolSize())
+                .setSubscriptionConnectionPoolSize(redis.getSubscriptionConnectionPoolSize())
+                .setSubscriptionsPerConnection(redis.getSubscriptionsPerConnection());
         return Redisson.create(config);
     }
 }
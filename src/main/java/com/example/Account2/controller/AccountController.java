@@ -12,7 +12,6 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequiredArgsConstructor
@@ -33,13 +32,7 @@ public class AccountController {
     public List<AccountInfo> getAccountsByUserId(
             @RequestParam("user_id") Long userId
     ){
-        return accountService.getAccountsByUserId(userId)
-                .stream().map(accountDto -> AccountInfo.builder()
-                        .accountNumber(accountDto.getAccountNumber())
-                        .balance(accountDto.getBalance())
-                        .build())
-                .collect(Collectors.toList());
-
+        return accountService.getAccountsByUserId(userId);
     }
 
     @GetMapping("/account/{id}")
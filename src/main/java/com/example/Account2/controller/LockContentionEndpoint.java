@@ -0,0 +1,34 @@
+package com.example.Account2.controller;
+
+import com.example.Account2.dto.LockContentionReport;
+import com.example.Account2.service.LockContentionProfiler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * 관리용 잠금 경합 조회 (/actuator/lockcontention)
+ * 1. GET : 경합이 잦은 계좌 top 개와 대기 시간 분포
+ * 2. DELETE : 초기화
+ */
+@Component
+@Endpoint(id = "lockcontention")
+@RequiredArgsConstructor
+public class LockContentionEndpoint {
+    private static final int DEFAULT_TOP = 20;
+
+    private final LockContentionProfiler lockContentionProfiler;
+
+    @ReadOperation
+    public LockContentionReport report(@Nullable Integer top) {
+        return lockContentionProfiler.report(top == null ? DEFAULT_TOP : Math.max(top, 0));
+    }
+
+    @DeleteOperation
+    public void reset() {
+        lockContentionProfiler.reset();
+    }
+}
@@ -1,28 +1,45 @@
 package com.example.Account2.controller;
 
 import com.example.Account2.aop.AccountLock;
+import com.example.Account2.aop.Idempotent;
 import com.example.Account2.dto.CancelBalance;
 import com.example.Account2.dto.QueryTransactionResponse;
 import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.dto.TransactionHistory;
 import com.example.Account2.dto.UseBalance;
+import com.example.Account2.dto.UseBalanceBatch;
 import com.example.Account2.exception.AccountException;
+import com.example.Account2.service.AccountActorEngine;
+import com.example.Account2.service.FailedTransactionRecorder;
+import com.example.Account2.service.TransactionBatchService;
+import com.example.Account2.service.TransactionHistoryService;
 import com.example.Account2.service.TransactionService;
+import com.example.Account2.type.TransactionType;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 /**
  * 잔액 관련 컨트롤러
- * 1. 잔액 사용
- * 2. 잔액 사용 취소
- * 3. 거래 확인
+ * 1. 잔액 사용 (Idempotency-Key)
+ * 2. 잔액 일괄 사용
+ * 3. 잔액 사용 취소 (Idempotency-Key)
+ * 4. 거래 확인
+ * 5. 계좌 거래 내역
  */
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final TransactionBatchService transactionBatchService;
+    private final AccountActorEngine accountActorEngine;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final TransactionHistoryService transactionHistoryService;
 
 
     @GetMapping("/transaction/{transactionId}")
@@ -33,20 +50,41 @@ public class TransactionController {
 
     }
 
+    /**
+     * 최신 거래부터 size 건, 다음 페이지는 응답의 nextCursor 를 cursor 로 넘긴다.
+     */
+    @GetMapping("/account/{accountNumber}/transactions")
+    public ResponseEntity<StreamingResponseBody> getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + TransactionHistory.DEFAULT_SIZE) int size
+    ) {
+        TransactionHistory.Query query = transactionHistoryService.prepare(accountNumber, cursor, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(outputStream -> transactionHistoryService.write(query, outputStream));
+    }
+
     @PostMapping("/transaction/use")
+    @Idempotent(TransactionType.USE)
     @AccountLock
     public UseBalance.Response useBalance(
             @Valid @RequestBody UseBalance.Request request
-    ) throws InterruptedException {
+    ) {
+        if (accountActorEngine.handles(request.getAccountNumber())) {
+            //실패 거래는 엔진이 같은 트랜잭션에서 기록한다.
+            return UseBalance.Response.from(AccountActorEngine.await(
+                    accountActorEngine.useBalance(request.getUserId(),
+                            request.getAccountNumber(), request.getAmount())));
+        }
         try {
-            Thread.sleep(5000L);
-             return UseBalance.Response.from(
+            return UseBalance.Response.from(
                     transactionService.useBalance(request.getUserId(),
                             request.getAccountNumber(), request.getAmount())
             );
         } catch (AccountException e) {
             log.error("Failed to use balance");
-            transactionService.saveFailedUseTransaction(
+            failedTransactionRecorder.recordUse(
                     request.getAccountNumber(),
                     request.getAmount()
             );
@@ -55,11 +93,28 @@ public class TransactionController {
         }
     }
 
+    /**
+     * 계좌별 잠금은 TransactionBatchService 가 계좌마다 한 번씩 잡는다.
+     */
+    @PostMapping("/transaction/use/batch")
+    public UseBalanceBatch.Response useBalanceBatch(
+            @Valid @RequestBody UseBalanceBatch.Request request
+    ) {
+        return new UseBalanceBatch.Response(
+                transactionBatchService.useBalances(request.getItems()));
+    }
+
     @PostMapping("/transaction/cancel")
+    @Idempotent(TransactionType.CANCEL)
     @AccountLock
     public CancelBalance.Response useBalance(
             @Valid @RequestBody CancelBalance.Request request
     ) {
+        if (accountActorEngine.handles(request.getAccountNumber())) {
+            return CancelBalance.Response.from(AccountActorEngine.await(
+                    accountActorEngine.cancelBalance(request.getTransactionId(),
+                            request.getAccountNumber(), request.getAmount())));
+        }
         try {
             return CancelBalance.Response.from(
                     transactionService.cancelBalance(request.getTransactionId(),
@@ -67,7 +122,7 @@ public class TransactionController {
             );
         } catch (AccountException e) {
             log.error("Failed to cancel balance");
-            transactionService.saveFailedCancelTransaction(
+            failedTransactionRecorder.recordCancel(
                     request.getAccountNumber(),
                     request.getAmount()
             );
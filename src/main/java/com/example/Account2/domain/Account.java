@@ -1,5 +1,6 @@
 package com.example.Account2.domain;
 
+import com.example.Account2.config.PooledSequence;
 import com.example.Account2.exception.AccountException;
 import com.example.Account2.type.AccountStatus;
 import com.example.Account2.type.ErrorCode;
@@ -18,10 +19,12 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = @Index(name = "ux_account_account_number",
+        columnList = "account_number", unique = true))
 @EntityListeners(AuditingEntityListener.class)
 public class Account{
     @Id
-    @GeneratedValue
+    @PooledSequence(name = "account_seq")
     private Long id;
 
     @CreatedDate
@@ -29,8 +32,9 @@ public class Account{
     @LastModifiedDate
     private LocalDateTime updatedAt;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
+    @Column(name = "account_number", nullable = false, length = 10)
     private String accountNumber;
 
     @Enumerated(EnumType.STRING)
@@ -39,6 +43,15 @@ public class Account{
 
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
+
+    @Version
+    private Long version;
+
+    /**
+     * 마지막으로 커밋한 잠금 보유자의 fencing token (LockFencing)
+     */
+    private Long lockToken;
+
     public void useBalance(Long amount){
         if (amount > balance){
             throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
@@ -0,0 +1,30 @@
+package com.example.Account2.domain;
+
+import com.example.Account2.config.PooledSequence;
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * 분할 잔액 계좌(account.balance.split-balance)의 하위 잔액 슬롯
+ * 계좌의 실제 잔액 = Account.balance + 모든 슬롯의 balance 합
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = @Index(name = "ux_account_sub_balance_account_slot",
+        columnList = "account_id, slot", unique = true))
+public class AccountSubBalance {
+    @Id
+    @PooledSequence(name = "account_sub_balance_seq")
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "account_id", nullable = false)
+    private Account account;
+    @Column(nullable = false)
+    private int slot;
+    private long balance;
+}
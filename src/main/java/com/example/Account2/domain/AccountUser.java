@@ -1,8 +1,8 @@
 package com.example.Account2.domain;
 
+import com.example.Account2.config.PooledSequence;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EntityListeners;
-import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
 import lombok.*;
 import org.springframework.data.annotation.CreatedDate;
@@ -20,7 +20,7 @@ import java.time.LocalDateTime;
 @EntityListeners(AuditingEntityListener.class)
 public class AccountUser{
     @Id
-    @GeneratedValue
+    @PooledSequence(name = "account_user_seq")
     private Long id;
 
     @CreatedDate
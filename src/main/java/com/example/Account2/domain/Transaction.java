@@ -1,5 +1,6 @@
 package com.example.Account2.domain;
 
+import com.example.Account2.config.PooledSequence;
 import com.example.Account2.type.AccountStatus;
 import com.example.Account2.type.TransactionResultType;
 import com.example.Account2.type.TransactionType;
@@ -17,10 +18,17 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        @Index(name = "ux_transaction_transaction_id",
+                columnList = "transaction_id", unique = true),
+        @Index(name = "ix_transaction_account_transacted_at",
+                columnList = "account_id, transacted_at, id"),
+        @Index(name = "ix_transaction_legacy_transaction_id",
+                columnList = "legacy_transaction_id")})
 @EntityListeners(AuditingEntityListener.class)
 public class Transaction{
     @Id
-    @GeneratedValue
+    @PooledSequence(name = "transaction_seq")
     private Long id;
 
     @CreatedDate
@@ -34,13 +42,17 @@ public class Transaction{
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;
 
     private Long amount;
     private Long balanceSanpshot;
 
-    private String transactionId;
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+    // V4 이전에 발급된 32자 UUID 거래 번호 (이전 영수증 조회/취소용)
+    @Column(name = "legacy_transaction_id", length = 32)
+    private String legacyTransactionId;
     private LocalDateTime transactedAt;
 
 
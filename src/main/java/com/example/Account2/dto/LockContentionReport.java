@@ -0,0 +1,62 @@
+package com.example.Account2.dto;
+
+import lombok.*;
+import org.HdrHistogram.AbstractHistogram;
+
+import java.util.List;
+
+/**
+ * 잠금 경합 보고서 (대기 시간 단위는 마이크로초)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LockContentionReport {
+    private int capacity;
+    private long contended;
+    private WaitSummary waits;
+    private List<HotAccount> hotAccounts;
+
+    /**
+     * contended 는 실제보다 최대 error 만큼 크다. (Space-Saving 추정치)
+     * conflicts 는 contended 중 optimistic 전략의 버전 충돌 수이다.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class HotAccount {
+        private String accountNumber;
+        private long contended;
+        private long error;
+        private long rejected;
+        private long conflicts;
+        private WaitSummary waits;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class WaitSummary {
+        private long count;
+        private long p50;
+        private long p90;
+        private long p99;
+        private long max;
+
+        public static WaitSummary from(AbstractHistogram histogram) {
+            return WaitSummary.builder()
+                    .count(histogram.getTotalCount())
+                    .p50(histogram.getValueAtPercentile(50))
+                    .p90(histogram.getValueAtPercentile(90))
+                    .p99(histogram.getValueAtPercentile(99))
+                    .max(histogram.getMaxValue())
+                    .build();
+        }
+    }
+}
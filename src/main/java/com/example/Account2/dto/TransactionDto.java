@@ -1,13 +1,9 @@
 package com.example.Account2.dto;
 
 
-import com.example.Account2.domain.Account;
 import com.example.Account2.domain.Transaction;
 import com.example.Account2.type.TransactionResultType;
 import com.example.Account2.type.TransactionType;
-import jakarta.persistence.EnumType;
-import jakarta.persistence.Enumerated;
-import jakarta.persistence.ManyToOne;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -26,6 +22,20 @@ public class TransactionDto {
     private String transactionId;
     private LocalDateTime transactedAt;
 
+    /**
+     * TransactionRepository.findDtoByTransactionId 의 생성자 프로젝션
+     */
+    public TransactionDto(String accountNumber,
+                          TransactionType transactionType,
+                          TransactionResultType transactionResultType,
+                          Long amount,
+                          Long balanceSanpshot,
+                          Long transactionId,
+                          LocalDateTime transactedAt) {
+        this(accountNumber, transactionType, transactionResultType, amount,
+                balanceSanpshot, TransactionIdFormat.format(transactionId), transactedAt);
+    }
+
     public static TransactionDto fromEntity(Transaction transaction){
         return TransactionDto.builder()
                 .accountNumber(transaction.getAccount().getAccountNumber())
@@ -33,7 +43,7 @@ public class TransactionDto {
                 .transactionResultType(transaction.getTransactionResultType())
                 .amount(transaction.getAmount())
                 .balanceSanpshot(transaction.getBalanceSanpshot())
-                .transactionId(transaction.getTransactionId())
+                .transactionId(TransactionIdFormat.format(transaction.getTransactionId()))
                 .transactedAt(transaction.getTransactedAt())
                 .build();
 
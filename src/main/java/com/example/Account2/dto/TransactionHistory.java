@@ -0,0 +1,80 @@
+package com.example.Account2.dto;
+
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import com.example.Account2.type.TransactionResultType;
+import com.example.Account2.type.TransactionType;
+import lombok.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * 계좌 거래 내역 (최신순, keyset 페이지)
+ * 응답 : {"accountNumber": ..., "items": [Item...], "nextCursor": 다음 페이지 커서 또는 null}
+ */
+public class TransactionHistory {
+    public static final int DEFAULT_SIZE = 50;
+    public static final int MAX_SIZE = 1000;
+
+    /**
+     * 검증이 끝난 조회 조건 (cursor 가 null 이면 첫 페이지)
+     */
+    public record Query(Long accountId, String accountNumber, Cursor cursor, int size) {
+    }
+
+    /**
+     * 마지막으로 받은 거래의 (transactedAt, id), 다음 페이지는 이보다 앞선 거래부터 시작한다.
+     * 클라이언트에는 base64url 문자열로만 보인다.
+     */
+    public record Cursor(LocalDateTime transactedAt, Long id) {
+        private static final String SEPARATOR = "|";
+
+        public static Cursor of(TransactionHistoryRow row) {
+            return new Cursor(row.getTransactedAt(), row.getId());
+        }
+
+        public String encode() {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString((transactedAt + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static Cursor decode(String cursor) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.indexOf(SEPARATOR);
+                return new Cursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                        Long.valueOf(decoded.substring(separator + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new AccountException(ErrorCode.INVALID_REQUEST);
+            }
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private String transactionId;
+        private TransactionType transactionType;
+        private TransactionResultType transactionResult;
+        private Long amount;
+        private Long balanceSnapshot;
+        private LocalDateTime transactedAt;
+
+        public static Item from(TransactionHistoryRow row) {
+            return Item.builder()
+                    .transactionId(TransactionIdFormat.format(row.getTransactionId()))
+                    .transactionType(row.getTransactionType())
+                    .transactionResult(row.getTransactionResultType())
+                    .amount(row.getAmount())
+                    .balanceSnapshot(row.getBalanceSnapshot())
+                    .transactedAt(row.getTransactedAt())
+                    .build();
+        }
+    }
+}
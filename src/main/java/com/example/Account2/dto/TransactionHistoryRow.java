@@ -0,0 +1,23 @@
+package com.example.Account2.dto;
+
+import com.example.Account2.type.TransactionResultType;
+import com.example.Account2.type.TransactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 내역 조회 projection (id 는 다음 페이지 커서에만 쓴다.)
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionHistoryRow {
+    private Long id;
+    private Long transactionId;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResultType;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+}
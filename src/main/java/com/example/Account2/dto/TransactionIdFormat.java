@@ -0,0 +1,58 @@
+package com.example.Account2.dto;
+
+/**
+ * 거래 번호(long)의 API 표현
+ * Crockford base32 13자리 고정 길이라 문자열 정렬 순서가 숫자 순서와 같다.
+ */
+public final class TransactionIdFormat {
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int LENGTH = 13;
+
+    private TransactionIdFormat() {
+    }
+
+    public static String format(long transactionId) {
+        char[] chars = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (transactionId & 31)];
+            transactionId >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    /**
+     * @throws IllegalArgumentException 형식이 맞지 않는 경우
+     */
+    public static long parse(String text) {
+        if (text == null || text.length() != LENGTH) {
+            throw new IllegalArgumentException("Invalid transaction id : " + text);
+        }
+        long value = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            int digit = decode(text.charAt(i));
+            if (digit < 0 || (i == 0 && digit > 15)) {
+                throw new IllegalArgumentException("Invalid transaction id : " + text);
+            }
+            value = (value << 5) | digit;
+        }
+        return value;
+    }
+
+    private static int decode(char c) {
+        char upper = Character.toUpperCase(c);
+        switch (upper) {
+            case 'O':
+                return 0;
+            case 'I':
+            case 'L':
+                return 1;
+            default:
+                for (int i = 0; i < ALPHABET.length; i++) {
+                    if (ALPHABET[i] == upper) {
+                        return i;
+                    }
+                }
+                return -1;
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.Account2.dto;
+
+import com.example.Account2.type.ErrorCode;
+import com.example.Account2.type.TransactionResultType;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UseBalanceBatch {
+    public static final int MAX_ITEMS = 1000;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotNull
+        @Size(min=1, max=MAX_ITEMS)
+        private List<@Valid @NotNull UseBalance.Request> items;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Response {
+        /**
+         * 요청 items 와 같은 순서
+         */
+        private List<Result> results;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Result {
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static Result from(TransactionDto transactionDto, ErrorCode errorCode) {
+            return Result.builder()
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionResult(transactionDto.getTransactionResultType())
+                    .transactionId(transactionDto.getTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .errorCode(errorCode)
+                    .errorMessage(errorCode == null ? null : errorCode.getDescription())
+                    .build();
+        }
+
+        /**
+         * 거래 기록 없이 실패한 항목 (잠금 실패, 계좌 없음 등)
+         */
+        public static Result failed(UseBalance.Request request, ErrorCode errorCode) {
+            return Result.builder()
+                    .accountNumber(request.getAccountNumber())
+                    .transactionResult(TransactionResultType.F)
+                    .amount(request.getAmount())
+                    .errorCode(errorCode)
+                    .errorMessage(errorCode.getDescription())
+                    .build();
+        }
+    }
+}
@@ -2,19 +2,27 @@ package com.example.Account2.exception;
 
 import com.example.Account2.dto.ErrorResponse;
 import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+/**
+ * 응답한 에러 코드별 건수는 account.errors(code) 로 남긴다.
+ */
 @Slf4j
 @RestControllerAdvice
+@RequiredArgsConstructor
 public class GlobalExceptionHander {
+    private final MeterRegistry meterRegistry;
 
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handlerAccountException(AccountException e){
         log.error("{} is occurred.", e.getErrorCode());
+        countError(e.getErrorCode());
         return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
     }
 
@@ -22,6 +30,7 @@ public class GlobalExceptionHander {
     public ErrorResponse handleDataIntergrityViolationException(
             DataIntegrityViolationException e){
         log.error("{} is occurred", e);
+        countError(ErrorCode.INVALID_REQUEST);
 
         return new ErrorResponse(ErrorCode.INVALID_REQUEST, ErrorCode.INVALID_REQUEST.getDescription());
 
@@ -30,8 +39,12 @@ public class GlobalExceptionHander {
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleAccountException(Exception e){
         log.error("{} is occurred.", e);
+        countError(ErrorCode.UNEXPECT_ERROR);
         return new ErrorResponse(ErrorCode.UNEXPECT_ERROR,
                 ErrorCode.UNEXPECT_ERROR.getDescription());
     }
-}
 
+    private void countError(ErrorCode errorCode) {
+        meterRegistry.counter("account.errors", "code", errorCode.name()).increment();
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.Account2.repository;
+
+/**
+ * account_number_seq 접근 (DB 마다 시퀀스 문법이 달라 Hibernate dialect 로 SQL 을 만든다.)
+ */
+public interface AccountNumberSequenceRepository {
+    String ACCOUNT_NUMBER_SEQUENCE = "account_number_seq";
+
+    /**
+     * 다음 번호 구간의 시작 번호
+     */
+    Long nextAccountNumberBlock();
+
+    /**
+     * 시퀀스의 increment, 시퀀스가 없으면 null
+     */
+    Long findAccountNumberSequenceIncrement();
+}
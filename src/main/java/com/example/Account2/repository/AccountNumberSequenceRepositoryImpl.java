@@ -0,0 +1,38 @@
+package com.example.Account2.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.List;
+
+class AccountNumberSequenceRepositoryImpl implements AccountNumberSequenceRepository {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Long nextAccountNumberBlock() {
+        String sql = dialect().getSequenceSupport()
+                .getSequenceNextValString(ACCOUNT_NUMBER_SEQUENCE);
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    @Override
+    public Long findAccountNumberSequenceIncrement() {
+        //information_schema.sequences 는 표준 뷰 (H2, PostgreSQL, SQL Server)
+        List<?> increments = entityManager.createNativeQuery(
+                        "select cast(increment as bigint) from information_schema.sequences " +
+                                "where lower(sequence_name) = :sequenceName")
+                .setParameter("sequenceName", ACCOUNT_NUMBER_SEQUENCE)
+                .getResultList();
+        return increments.isEmpty() ? null : ((Number) increments.get(0)).longValue();
+    }
+
+    private Dialect dialect() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect();
+    }
+}
@@ -2,19 +2,57 @@ package com.example.Account2.repository;
 
 import com.example.Account2.domain.Account;
 import com.example.Account2.domain.AccountUser;
+import com.example.Account2.dto.AccountInfo;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface AccountRepository extends JpaRepository<Account, Long> {
-    Optional<Account> findFirstByOrderByIdDesc();
-
+public interface AccountRepository extends JpaRepository<Account, Long>,
+        AccountNumberSequenceRepository {
     Integer countByAccountUser(AccountUser accountUser);
 
     Optional<Account> findByAccountNumber(String AccountNumber);
 
-    List<Account> findByAccountUser(AccountUser accountUser);
+    List<Account> findAllByAccountNumberIn(Collection<String> accountNumbers);
+
+    @EntityGraph(attributePaths = "accountUser")
+    Optional<Account> findWithAccountUserById(Long id);
+
+    /**
+     * 분할 잔액 계좌는 하위 잔액 슬롯을 합한 잔액을 보여준다.
+     */
+    @Query("select new com.example.Account2.dto.AccountInfo(a.accountNumber, " +
+            "a.balance + coalesce((select sum(s.balance) from AccountSubBalance s where s.account = a), 0L)) " +
+            "from Account a where a.accountUser.id = :userId")
+    List<AccountInfo> findAccountInfosByUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance - :amount, " +
+            "a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber " +
+            "and a.accountUser.id = :userId " +
+            "and a.balance >= :amount " +
+            "and a.accountStatus = com.example.Account2.type.AccountStatus.IN_USE")
+    int useBalance(@Param("userId") Long userId,
+                   @Param("accountNumber") String accountNumber,
+                   @Param("amount") Long amount);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Account a set a.balance = a.balance + :amount, " +
+            "a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber")
+    int cancelBalance(@Param("accountNumber") String accountNumber,
+                      @Param("amount") Long amount);
+
+    @Query("select a.balance + coalesce((select sum(s.balance) from AccountSubBalance s where s.account = a), 0L) " +
+            "from Account a where a.id = :id")
+    long findTotalBalanceById(@Param("id") Long id);
 }
@@ -0,0 +1,40 @@
+package com.example.Account2.repository;
+
+import com.example.Account2.domain.AccountSubBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountSubBalanceRepository extends JpaRepository<AccountSubBalance, Long> {
+    @Query("select s.slot from AccountSubBalance s where s.account.id = :accountId")
+    List<Integer> findSlotsByAccountId(@Param("accountId") Long accountId);
+
+    @Query("select s from AccountSubBalance s where s.account.id = :accountId and s.balance > 0")
+    List<AccountSubBalance> findNonEmptyByAccountId(@Param("accountId") Long accountId);
+
+    @Query("select coalesce(sum(s.balance), 0) from AccountSubBalance s where s.account.id = :accountId")
+    long sumBalanceByAccountId(@Param("accountId") Long accountId);
+
+    @Modifying
+    @Query("update AccountSubBalance s set s.balance = s.balance + :amount " +
+            "where s.account.id = :accountId and s.slot = :slot")
+    int credit(@Param("accountId") Long accountId,
+               @Param("slot") int slot,
+               @Param("amount") Long amount);
+
+    /**
+     * 슬롯 잔액이 충분할 때만 차감한다.
+     */
+    @Modifying
+    @Query("update AccountSubBalance s set s.balance = s.balance - :amount " +
+            "where s.account.id = :accountId and s.slot = :slot " +
+            "and s.balance >= :amount")
+    int debit(@Param("accountId") Long accountId,
+              @Param("slot") int slot,
+              @Param("amount") Long amount);
+}
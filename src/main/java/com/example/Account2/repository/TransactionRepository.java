@@ -1,18 +1,84 @@
 package com.example.Account2.repository;
 
-import com.example.Account2.domain.Account;
-import com.example.Account2.domain.AccountUser;
 import com.example.Account2.domain.Transaction;
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.dto.TransactionHistoryRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository
         extends JpaRepository<Transaction, Long> {
 
-    Optional<Transaction> findByTransactionId(String transactionId);
+    Optional<Transaction> findByTransactionId(Long transactionId);
+
+    Optional<Transaction> findByLegacyTransactionId(String legacyTransactionId);
+
+    @EntityGraph(attributePaths = "account")
+    List<Transaction> findAllByTransactionIdIn(Collection<Long> transactionIds);
+
+    @EntityGraph(attributePaths = "account")
+    List<Transaction> findAllByLegacyTransactionIdIn(Collection<String> legacyTransactionIds);
+
+    @Query("select t.transactionId from Transaction t where t.transactionId in :transactionIds")
+    List<Long> findExistingTransactionIds(@Param("transactionIds") Collection<Long> transactionIds);
+
+    @Query("select new com.example.Account2.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSanpshot, t.transactionId, t.transactedAt) " +
+            "from Transaction t join t.account a " +
+            "where t.transactionId = :transactionId")
+    Optional<TransactionDto> findDtoByTransactionId(@Param("transactionId") Long transactionId);
+
+    @Query("select new com.example.Account2.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSanpshot, t.transactionId, t.transactedAt) " +
+            "from Transaction t join t.account a " +
+            "where t.legacyTransactionId = :legacyTransactionId")
+    Optional<TransactionDto> findDtoByLegacyTransactionId(
+            @Param("legacyTransactionId") String legacyTransactionId);
+
+    /**
+     * 계좌 거래 내역 첫 페이지 (ix_transaction_account_transacted_at 역순 탐색)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new com.example.Account2.dto.TransactionHistoryRow(" +
+            "t.id, t.transactionId, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSanpshot, t.transactedAt) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId " +
+            "order by t.transactedAt desc, t.id desc")
+    Stream<TransactionHistoryRow> streamHistory(@Param("accountId") Long accountId,
+                                                Pageable pageable);
+
+    /**
+     * 커서(transactedAt, id) 다음 페이지, OFFSET 없이 인덱스에서 바로 이어 읽는다.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("select new com.example.Account2.dto.TransactionHistoryRow(" +
+            "t.id, t.transactionId, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSanpshot, t.transactedAt) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId " +
+            "and (t.transactedAt < :transactedAt " +
+            "or (t.transactedAt = :transactedAt and t.id < :id)) " +
+            "order by t.transactedAt desc, t.id desc")
+    Stream<TransactionHistoryRow> streamHistoryBefore(@Param("accountId") Long accountId,
+                                                      @Param("transactedAt") LocalDateTime transactedAt,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
 
 }
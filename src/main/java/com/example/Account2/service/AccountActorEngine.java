@@ -0,0 +1,141 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.service.CommandBatchCommitter.Pending;
+import com.example.Account2.type.BalanceStrategy;
+import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 계좌별 단일 writer 엔진 (account.balance.strategy = actor)
+ * 1. 계좌 번호 hash 로 고정된 단일 스레드 샤드에 명령을 배정하므로 같은 계좌의 명령은 항상 한 스레드가 순서대로 처리한다.
+ *    (잠금도, 잠금 실패도 없다.)
+ * 2. 샤드는 대기열에 쌓인 명령을 maxBatch 개까지 모아 하나의 트랜잭션으로 커밋하고, 커밋 후에 결과를 돌려준다.
+ * 3. 다른 노드의 같은 계좌 변경은 @Version 충돌로 감지해 묶음 전체를 다시 시도한다.
+ */
+@Slf4j
+@Component
+public class AccountActorEngine {
+    private final CommandBatchCommitter committer;
+    private final boolean enabled;
+    private final AccountProperties.SplitBalance splitBalance;
+    private final int maxBatch;
+    private final Shard[] shards;
+    private final DistributionSummary batchSize;
+    private final Counter rejected;
+
+    public AccountActorEngine(TransactionService transactionService,
+                              AccountProperties accountProperties,
+                              MeterRegistry meterRegistry) {
+        AccountProperties.Balance balance = accountProperties.getBalance();
+        AccountProperties.Actor actor = balance.getActor();
+        this.committer = new CommandBatchCommitter(transactionService::applyBalanceCommands,
+                balance.getOptimistic().getMaxAttempts());
+        this.enabled = balance.getStrategy() == BalanceStrategy.ACTOR;
+        this.splitBalance = balance.getSplitBalance();
+        this.maxBatch = actor.getMaxBatch();
+        this.batchSize = DistributionSummary.builder("account.actor.batch.size")
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("account.actor.rejected");
+        this.shards = new Shard[enabled ? actor.getShards() : 0];
+        for (int i = 0; i < shards.length; i++) {
+            shards[i] = new Shard(i, actor.getQueueCapacity());
+        }
+        for (Shard shard : shards) {
+            shard.thread.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 분할 잔액 계좌는 엔진을 거치지 않는다. (슬롯 단위 원자적 UPDATE 로 처리)
+     */
+    public boolean handles(String accountNumber) {
+        return enabled && !splitBalance.isSplit(accountNumber);
+    }
+
+    public CompletableFuture<TransactionDto> useBalance(Long userId, String accountNumber,
+                                                        Long amount) {
+        return submit(BalanceCommand.use(userId, accountNumber, amount));
+    }
+
+    public CompletableFuture<TransactionDto> cancelBalance(String transactionId,
+                                                           String accountNumber,
+                                                           Long amount) {
+        return submit(BalanceCommand.cancel(transactionId, accountNumber, amount));
+    }
+
+    /**
+     * 결과를 기다리고, 실패했다면 원래의 AccountException 을 던진다.
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        return CommandBatchCommitter.await(future);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (Shard shard : shards) {
+            shard.thread.interrupt();
+        }
+    }
+
+    private CompletableFuture<TransactionDto> submit(BalanceCommand command) {
+        if (!enabled) {
+            throw new IllegalStateException("account.balance.strategy is not actor");
+        }
+        Pending pending = new Pending(command);
+        Shard shard = shards[Math.floorMod(command.getAccountNumber().hashCode(), shards.length)];
+        if (!shard.queue.offer(pending)) {
+            //대기열이 가득 찼다면 잠금 대기 초과와 같은 응답을 준다.
+            rejected.increment();
+            pending.future().completeExceptionally(
+                    new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        }
+        return pending.future();
+    }
+
+    private final class Shard implements Runnable {
+        private final BlockingQueue<Pending> queue;
+        private final Thread thread;
+
+        private Shard(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "account-actor-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Pending> batch = new ArrayList<>(maxBatch);
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+                queue.drainTo(batch, maxBatch - 1);
+                batchSize.record(batch.size());
+                committer.commit(batch);
+                batch.clear();
+            }
+            queue.drainTo(batch);
+            CommandBatchCommitter.failAll(batch, new AccountException(ErrorCode.UNEXPECT_ERROR));
+        }
+    }
+}
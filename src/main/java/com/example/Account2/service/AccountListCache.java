@@ -0,0 +1,126 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.AccountInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.LongCodec;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 사용자별 계좌 목록(계좌 번호, 잔액) 캐시
+ * 1. 잔액/계좌 변경은 Redis 의 사용자별 세대(generation)를 커밋 직전과 직후에 한 번씩 올린다. (모든 노드가 공유)
+ *    커밋 직전에 올리지 못하면(Redis 오류) 커밋하지 않으므로, 세대를 올릴 수 없는 변경은 커밋되지 않는다.
+ *    커밋 직후에 다시 올려 그 사이에 커밋 전 잔액을 읽어 캐시한 항목을 버린다.
+ * 2. 조회는 매번 공유 세대를 읽어 캐시 항목의 세대와 다르면 DB 에서 다시 읽는다.
+ *    세대는 DB 를 읽기 전에 읽어 두므로, 커밋 전에 읽은 잔액이 캐시에 남아도 다음 조회에서 버려진다.
+ * 3. 세대를 읽지 못하면 캐시를 쓰지 않고 DB 를 읽는다.
+ * 4. 커밋 직후에 올리지 못한 사용자는 올릴 때까지 이 노드에서 캐시하지 않고, 조회/무효화 때마다 다시 올린다.
+ */
+@Slf4j
+@Component
+public class AccountListCache {
+    static final String GENERATION_MAP = "ACCOUNT_LIST_GENERATION";
+
+    private final RMap<Long, Long> generations;
+    private final boolean enabled;
+    private final Cache<Long, Entry> localCache;
+    //커밋 직후 세대를 올리지 못한 사용자
+    private final Set<Long> pendingBumps = ConcurrentHashMap.newKeySet();
+
+    public AccountListCache(RedissonClient redissonClient,
+                            AccountProperties accountProperties,
+                            MeterRegistry meterRegistry) {
+        AccountProperties.AccountListCache properties =
+                accountProperties.getCache().getAccountList();
+        this.enabled = properties.isEnabled();
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfterWrite())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "account-list");
+        this.generations = redissonClient.getMap(GENERATION_MAP, LongCodec.INSTANCE);
+    }
+
+    public List<AccountInfo> get(Long userId, Function<Long, List<AccountInfo>> loader) {
+        if (!enabled) {
+            return loader.apply(userId);
+        }
+        retryPendingBumps();
+        if (pendingBumps.contains(userId)) {
+            return loader.apply(userId);
+        }
+        long generation;
+        try {
+            Long current = generations.get(userId);
+            generation = current == null ? 0L : current;
+        } catch (Exception e) {
+            log.error("Failed to read account list generation", e);
+            return loader.apply(userId);
+        }
+        Entry entry = localCache.getIfPresent(userId);
+        if (entry != null && entry.generation() == generation) {
+            return entry.accounts();
+        }
+
+        List<AccountInfo> accounts = List.copyOf(loader.apply(userId));
+        localCache.put(userId, new Entry(generation, accounts));
+        return accounts;
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤에 해당 사용자의 계좌 목록을 모든 노드에서 무효화한다.
+     */
+    public void evictAfterCommit(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            generations.addAndGet(userId, 1L);
+            localCache.invalidate(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                //Redis 오류는 그대로 던져 커밋하지 않는다.
+                generations.addAndGet(userId, 1L);
+            }
+
+            @Override
+            public void afterCommit() {
+                localCache.invalidate(userId);
+                pendingBumps.add(userId);
+                retryPendingBumps();
+            }
+        });
+    }
+
+    private void retryPendingBumps() {
+        for (Long userId : pendingBumps) {
+            try {
+                generations.addAndGet(userId, 1L);
+                pendingBumps.remove(userId);
+            } catch (Exception e) {
+                log.error("Failed to bump account list generation, userId : {}", userId, e);
+                return;
+            }
+        }
+    }
+
+    private record Entry(long generation, List<AccountInfo> accounts) {
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 계좌 번호 발급기
+ * DB 시퀀스에서 blockSize 만큼의 번호 구간을 선점하고,
+ * 구간 안에서는 메모리의 AtomicLong 으로만 번호를 발급한다.
+ * 구간을 받아오는 동안 DB 를 기다리므로 synchronized 대신 ReentrantLock 을 쓴다. (가상 스레드 pinning 방지)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountNumberAllocator {
+    private final AccountRepository accountRepository;
+    private final AccountProperties accountProperties;
+
+    private final ReentrantLock refillLock = new ReentrantLock();
+
+    private volatile NumberBlock block = NumberBlock.EMPTY;
+
+    public String next() {
+        while (true) {
+            NumberBlock current = block;
+            long number = current.next.getAndIncrement();
+            if (number < current.end) {
+                return String.valueOf(number);
+            }
+            refill(current);
+        }
+    }
+
+    private void refill(NumberBlock exhausted) {
+        refillLock.lock();
+        try {
+            if (block != exhausted) {
+                //다른 스레드가 이미 새 구간을 받아왔다.
+                return;
+            }
+            long start = accountRepository.nextAccountNumberBlock();
+            block = new NumberBlock(start,
+                    start + accountProperties.getNumbering().getBlockSize());
+            log.debug("Leased account number block [{}, {})", start, block.end);
+        } finally {
+            refillLock.unlock();
+        }
+    }
+
+    private static final class NumberBlock {
+        private static final NumberBlock EMPTY = new NumberBlock(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+
+        private NumberBlock(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+/**
+ * 기동 시 account_number_seq 의 increment 가 account.numbering.block-size 와 같은지 확인한다.
+ * 다르면 노드들이 서로 겹치는 번호 구간을 받으므로 기동하지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountNumberSequenceValidator implements ApplicationRunner {
+    private final AccountRepository accountRepository;
+    private final AccountProperties accountProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Long increment;
+        try {
+            increment = accountRepository.findAccountNumberSequenceIncrement();
+        } catch (DataAccessException e) {
+            //information_schema.sequences 가 없는 DB
+            log.warn("Cannot verify account_number_seq increment", e);
+            return;
+        }
+        int blockSize = accountProperties.getNumbering().getBlockSize();
+        if (increment == null) {
+            throw new IllegalStateException("account_number_seq does not exist");
+        }
+        if (increment != blockSize) {
+            throw new IllegalStateException("account_number_seq increment (" + increment +
+                    ") must equal account.numbering.block-size (" + blockSize + ")");
+        }
+    }
+}
@@ -3,8 +3,10 @@ package com.example.Account2.service;
 import com.example.Account2.domain.Account;
 import com.example.Account2.domain.AccountUser;
 import com.example.Account2.dto.AccountDto;
+import com.example.Account2.dto.AccountInfo;
 import com.example.Account2.exception.AccountException;
 import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.AccountSubBalanceRepository;
 
 import com.example.Account2.repository.AccountUserRepository;
 import com.example.Account2.type.AccountStatus;
@@ -16,7 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,6 +26,11 @@ public class AccountService {
 
     private final AccountUserRepository accountUserRepository;
 
+    private final AccountNumberAllocator accountNumberAllocator;
+
+    private final AccountListCache accountListCache;
+
+    private final AccountSubBalanceRepository accountSubBalanceRepository;
 
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
@@ -36,9 +42,9 @@ public class AccountService {
         }
 
         //계좌 번호 생성
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc()
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "")
-                .orElse("1000000000");
+        String newAccountNumber = accountNumberAllocator.next();
+
+        accountListCache.evictAfterCommit(accountUser.getId());
 
         //계좌 저장 후 정보 반환
 
@@ -62,7 +68,7 @@ public class AccountService {
 
     @Transactional
     public Account getAccount(Long id) {
-        return accountRepository.findById(id).get();
+        return accountRepository.findWithAccountUserById(id).get();
     }
 
     @Transactional
@@ -77,6 +83,7 @@ public class AccountService {
         account.setUnRegisteredAt(LocalDateTime.now());
 
         accountRepository.save(account);
+        accountListCache.evictAfterCommit(accountUser.getId());
 
         return AccountDto.fromEntity(account);
 
@@ -89,17 +96,26 @@ public class AccountService {
         if(account.getAccountStatus() == AccountStatus.UNREGISTERED){
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
-        if(account.getBalance() > 0){
+        //분할 잔액 계좌는 하위 잔액 슬롯까지 비어 있어야 한다.
+        if(account.getBalance() + accountSubBalanceRepository.sumBalanceByAccountId(account.getId()) > 0){
             throw new AccountException(ErrorCode.ACCOUNT_NOT_EMPTY);
         }
 
     }
 
-    public List<AccountDto> getAccountsByUserId(Long userId) {
-        AccountUser accountUser = getAccountUser(userId);
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
-        return accounts.stream()
-                .map(AccountDto::fromEntity)
-                .collect(Collectors.toList());
+    /**
+     * 캐시 적중 시 커넥션을 잡지 않도록 트랜잭션 밖에서 조회한다.
+     */
+    public List<AccountInfo> getAccountsByUserId(Long userId) {
+        return accountListCache.get(userId, this::findAccountInfos);
+    }
+
+    private List<AccountInfo> findAccountInfos(Long userId) {
+        List<AccountInfo> accounts = accountRepository.findAccountInfosByUserId(userId);
+        //계좌가 없을 때만 사용자 유무 조회
+        if(accounts.isEmpty() && !accountUserRepository.existsById(userId)){
+            throw new AccountException(ErrorCode.USER_NOT_FOUND);
+        }
+        return accounts;
     }
 }
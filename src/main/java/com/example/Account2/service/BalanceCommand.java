@@ -0,0 +1,58 @@
+package com.example.Account2.service;
+
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.type.ErrorCode;
+import com.example.Account2.type.TransactionType;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 잔액 사용/취소 명령 (여러 건을 한 트랜잭션으로 처리할 때 사용)
+ */
+@Getter
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class BalanceCommand {
+    private final TransactionType transactionType;
+    /**
+     * 사용(USE)일 때만
+     */
+    private final Long userId;
+    /**
+     * 취소(CANCEL)일 때만
+     */
+    private final String transactionId;
+    private final String accountNumber;
+    private final Long amount;
+    /**
+     * 계좌 잠금을 쥔 요청 스레드의 fencing token (다른 스레드에서 커밋할 때만, 없으면 null)
+     */
+    private final Long lockToken;
+
+    public static BalanceCommand use(Long userId, String accountNumber, Long amount) {
+        return new BalanceCommand(TransactionType.USE, userId, null, accountNumber, amount, null);
+    }
+
+    public static BalanceCommand cancel(String transactionId, String accountNumber, Long amount) {
+        return new BalanceCommand(TransactionType.CANCEL, null, transactionId, accountNumber, amount, null);
+    }
+
+    public BalanceCommand withLockToken(Long lockToken) {
+        return new BalanceCommand(transactionType, userId, transactionId, accountNumber, amount, lockToken);
+    }
+
+    /**
+     * transactionDto : 기록된 거래 (계좌가 없으면 null)
+     * errorCode : 실패 사유 (성공이면 null)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final TransactionDto transactionDto;
+        private final ErrorCode errorCode;
+
+        public boolean isSuccess() {
+            return errorCode == null;
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.Account2.service;
+
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * 모인 명령을 한 트랜잭션으로 커밋하고, 커밋 후에 각 호출자의 future 를 완료한다.
+ * @Version 충돌 시 묶음 전체를 maxAttempts 까지 다시 시도한다.
+ * (AccountActorEngine, GroupCommitter 공용)
+ */
+@Slf4j
+@RequiredArgsConstructor
+class CommandBatchCommitter {
+    private final Function<List<BalanceCommand>, List<BalanceCommand.Result>> apply;
+    private final int maxAttempts;
+
+    void commit(List<Pending> batch) {
+        List<BalanceCommand> commands = batch.stream().map(Pending::command).toList();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                List<BalanceCommand.Result> results = apply.apply(commands);
+                for (int i = 0; i < batch.size(); i++) {
+                    complete(batch.get(i).future(), results.get(i));
+                }
+                return;
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.error("Batch conflicts exhausted, size : {}", batch.size());
+                    failAll(batch, new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+                    return;
+                }
+                log.debug("Batch conflict, attempt : {}", attempt);
+            } catch (RuntimeException e) {
+                log.error("Batch failed, size : {}", batch.size(), e);
+                failAll(batch, e);
+                return;
+            }
+        }
+    }
+
+    static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    static void failAll(List<Pending> batch, RuntimeException e) {
+        for (Pending pending : batch) {
+            pending.future().completeExceptionally(e);
+        }
+    }
+
+    private static void complete(CompletableFuture<TransactionDto> future,
+                                 BalanceCommand.Result result) {
+        if (result.isSuccess()) {
+            future.complete(result.getTransactionDto());
+        } else {
+            future.completeExceptionally(new AccountException(result.getErrorCode()));
+        }
+    }
+
+    record Pending(BalanceCommand command, CompletableFuture<TransactionDto> future) {
+        Pending(BalanceCommand command) {
+            this(command, new CompletableFuture<>());
+        }
+    }
+}
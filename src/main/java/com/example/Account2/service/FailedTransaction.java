@@ -0,0 +1,21 @@
+package com.example.Account2.service;
+
+import com.example.Account2.type.TransactionType;
+
+import java.time.LocalDateTime;
+
+/**
+ * 기록 대기 중인 실패 거래 (FailedTransactionRecorder)
+ * spill 파일에는 한 줄에 하나씩 JSON 으로 기록한다.
+ */
+public record FailedTransaction(
+        TransactionType transactionType,
+        String accountNumber,
+        Long amount,
+        LocalDateTime failedAt) {
+
+    boolean isComplete() {
+        return transactionType != null && accountNumber != null
+                && amount != null && failedAt != null;
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.type.OverflowPolicy;
+import com.example.Account2.type.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 실패 거래(F) 기록 (account.failure-log)
+ * 실패 거래는 감사용 데이터이므로 요청 스레드에서 계좌 조회/insert 를 하지 않는다.
+ * 1. 요청 스레드는 대기열(bounded)에 넣고 바로 반환한다. 가득 차면 offerTimeout 까지 기다린 뒤 overflow 정책을 따른다.
+ * 2. 백그라운드 스레드가 maxBatch 개씩 모아 한 트랜잭션으로 저장한다.
+ * 3. SPILL 정책이면 넘친 거래와 저장에 실패한 묶음을 파일(JSON lines)에 덧붙이고, 대기열이 idleInterval 동안 비면 다시 저장한다.
+ * async=false 면 기존처럼 요청 스레드에서 바로 저장한다.
+ */
+@Slf4j
+@Component
+public class FailedTransactionRecorder {
+    private final TransactionService transactionService;
+    private final ObjectMapper objectMapper;
+    private final boolean async;
+    private final int maxBatch;
+    private final long offerTimeoutNanos;
+    private final long idleIntervalNanos;
+    private final OverflowPolicy overflow;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path progressFile;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final ReentrantLock spillLock = new ReentrantLock();
+    private final Thread thread;
+    private final Counter dropped;
+    private final Counter spilled;
+    private final Counter malformed;
+    private final DistributionSummary batchSize;
+
+    public FailedTransactionRecorder(TransactionService transactionService,
+                                     ObjectMapper objectMapper,
+                                     AccountProperties accountProperties,
+                                     MeterRegistry meterRegistry) {
+        AccountProperties.FailureLog failureLog = accountProperties.getFailureLog();
+        this.transactionService = transactionService;
+        this.objectMapper = objectMapper;
+        this.async = failureLog.isAsync();
+        this.maxBatch = failureLog.getMaxBatch();
+        this.offerTimeoutNanos = failureLog.getOfferTimeout().toNanos();
+        this.idleIntervalNanos = failureLog.getIdleInterval().toNanos();
+        this.overflow = failureLog.getOverflow();
+        this.spillFile = Paths.get(failureLog.getSpillFile());
+        this.replayFile = Paths.get(failureLog.getSpillFile() + ".replay");
+        this.progressFile = Paths.get(failureLog.getSpillFile() + ".replay.progress");
+        this.queue = new ArrayBlockingQueue<>(failureLog.getQueueCapacity());
+        this.dropped = meterRegistry.counter("account.failure-log.dropped");
+        this.spilled = meterRegistry.counter("account.failure-log.spilled");
+        this.malformed = meterRegistry.counter("account.failure-log.malformed");
+        this.batchSize = DistributionSummary.builder("account.failure-log.batch.size")
+                .register(meterRegistry);
+        meterRegistry.gauge("account.failure-log.queued", queue, BlockingQueue::size);
+        this.thread = new Thread(this::run, "failure-log-writer");
+        this.thread.setDaemon(true);
+        if (async) {
+            thread.start();
+        }
+    }
+
+    public void recordUse(String accountNumber, Long amount) {
+        if (!async) {
+            transactionService.saveFailedUseTransaction(accountNumber, amount);
+            return;
+        }
+        offer(new FailedTransaction(TransactionType.USE, accountNumber, amount, LocalDateTime.now()));
+    }
+
+    public void recordCancel(String accountNumber, Long amount) {
+        if (!async) {
+            transactionService.saveFailedCancelTransaction(accountNumber, amount);
+            return;
+        }
+        offer(new FailedTransaction(TransactionType.CANCEL, accountNumber, amount, LocalDateTime.now()));
+    }
+
+    /**
+     * 대기열에 남은 거래를 저장하고 writer 를 멈춘다.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (!async) {
+            return;
+        }
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void offer(FailedTransaction failedTransaction) {
+        boolean queued;
+        try {
+            queued = offerTimeoutNanos > 0
+                    ? queue.offer(failedTransaction, offerTimeoutNanos, TimeUnit.NANOSECONDS)
+                    : queue.offer(failedTransaction);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queued = false;
+        }
+        if (!queued) {
+            overflow(List.of(failedTransaction));
+        }
+    }
+
+    private void run() {
+        List<FailedTransaction> batch = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                FailedTransaction first = queue.poll(idleIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    replaySpill();
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            queue.drainTo(batch, maxBatch - batch.size());
+            save(batch);
+            batch.clear();
+        }
+        while (queue.drainTo(batch, maxBatch) > 0) {
+            save(batch);
+            batch.clear();
+        }
+    }
+
+    private void save(List<FailedTransaction> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        batchSize.record(batch.size());
+        try {
+            transactionService.saveFailedTransactions(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to save failed transactions, size : {}", batch.size(), e);
+            overflow(batch);
+        }
+    }
+
+    private void overflow(List<FailedTransaction> failedTransactions) {
+        if (overflow == OverflowPolicy.SPILL && spill(failedTransactions)) {
+            spilled.increment(failedTransactions.size());
+            return;
+        }
+        dropped.increment(failedTransactions.size());
+    }
+
+    private boolean spill(List<FailedTransaction> failedTransactions) {
+        spillLock.lock();
+        try {
+            List<String> lines = new ArrayList<>(failedTransactions.size());
+            for (FailedTransaction failedTransaction : failedTransactions) {
+                lines.add(objectMapper.writeValueAsString(failedTransaction));
+            }
+            Files.write(spillFile, lines,
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            return true;
+        } catch (IOException e) {
+            log.error("Failed to spill failed transactions to {}", spillFile, e);
+            return false;
+        } finally {
+            spillLock.unlock();
+        }
+    }
+
+    /**
+     * spill 파일을 옮겨 놓고(그동안 넘치는 거래는 새 spill 파일에 쌓인다) maxBatch 개씩 다시 저장한다.
+     * 다시 저장하다 실패한 묶음은 새 spill 파일로 돌아간다.
+     * 묶음마다 처리한 줄 수를 progress 파일에 남겨, 중간에 멈췄다면 다음 replay 는 그 다음 줄부터 저장한다.
+     * 읽을 수 없는 줄은 건너뛰고 건수만 기록한다.
+     */
+    private void replaySpill() {
+        try {
+            if (!Files.exists(replayFile)) {
+                spillLock.lock();
+                try {
+                    if (!Files.exists(spillFile)) {
+                        return;
+                    }
+                    Files.deleteIfExists(progressFile);
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    spillLock.unlock();
+                }
+            }
+            List<String> lines = Files.readAllLines(replayFile, StandardCharsets.UTF_8);
+            int from = readProgress();
+            while (from < lines.size()) {
+                int to = Math.min(from + maxBatch, lines.size());
+                save(parse(lines.subList(from, to)));
+                writeProgress(to);
+                from = to;
+            }
+            Files.delete(replayFile);
+            Files.deleteIfExists(progressFile);
+            log.info("Replayed spilled failed transactions : {}", lines.size());
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to replay spilled failed transactions", e);
+        }
+    }
+
+    private List<FailedTransaction> parse(List<String> lines) {
+        List<FailedTransaction> failedTransactions = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            try {
+                FailedTransaction failedTransaction = objectMapper.readValue(line, FailedTransaction.class);
+                if (failedTransaction != null && failedTransaction.isComplete()) {
+                    failedTransactions.add(failedTransaction);
+                    continue;
+                }
+            } catch (JsonProcessingException e) {
+                //아래에서 건너뛴 줄로 센다.
+            }
+            malformed.increment();
+            log.warn("Skipped malformed spill line : {}", line);
+        }
+        return failedTransactions;
+    }
+
+    private int readProgress() throws IOException {
+        if (!Files.exists(progressFile)) {
+            return 0;
+        }
+        return Integer.parseInt(Files.readString(progressFile, StandardCharsets.UTF_8).trim());
+    }
+
+    /**
+     * 임시 파일에 쓴 뒤 옮겨서, 쓰는 도중 멈춰도 progress 파일이 깨지지 않게 한다.
+     */
+    private void writeProgress(int lines) throws IOException {
+        Path temp = Paths.get(progressFile + ".tmp");
+        Files.writeString(temp, Integer.toString(lines), StandardCharsets.UTF_8);
+        Files.move(temp, progressFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
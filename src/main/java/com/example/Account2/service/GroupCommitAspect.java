@@ -0,0 +1,62 @@
+package com.example.Account2.service;
+
+import com.example.Account2.aop.GroupCommit;
+import com.example.Account2.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 그룹 커밋 진입점
+ * 요청 스레드가 자기 트랜잭션(커넥션)을 잡은 채 기다리지 않도록 @Transactional 바깥에서 가로챈다.
+ * optimistic 재시도보다는 안쪽에서 실행된다.
+ * 분할 잔액 계좌는 묶지 않는다. (슬롯 단위 원자적 UPDATE 로 처리)
+ * 커밋은 GroupCommitter 스레드에서 하므로 요청 스레드의 fencing token 을 명령에 실어 보낸다.
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class GroupCommitAspect {
+    private final GroupCommitter groupCommitter;
+    private final SplitBalanceService splitBalanceService;
+    private final LockFencing lockFencing;
+
+    @Around("@annotation(groupCommit)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, GroupCommit groupCommit) throws Throwable {
+        if (!groupCommitter.isEnabled()) {
+            return pjp.proceed();
+        }
+        Map<String, Object> args = getArgs(pjp);
+        String accountNumber = (String) args.get("accountNumber");
+        if (splitBalanceService.isSplit(accountNumber)) {
+            return pjp.proceed();
+        }
+        Long amount = (Long) args.get("amount");
+        BalanceCommand command = groupCommit.value() == TransactionType.USE
+                ? BalanceCommand.use((Long) args.get("userId"), accountNumber, amount)
+                : BalanceCommand.cancel((String) args.get("transactionId"), accountNumber, amount);
+        return CommandBatchCommitter.await(groupCommitter.submit(
+                command.withLockToken(lockFencing.currentToken(accountNumber))));
+    }
+
+    private static Map<String, Object> getArgs(ProceedingJoinPoint pjp) {
+        String[] parameterNames = ((MethodSignature) pjp.getSignature()).getParameterNames();
+        Object[] values = pjp.getArgs();
+        Map<String, Object> args = new HashMap<>();
+        for (int i = 0; i < parameterNames.length; i++) {
+            args.put(parameterNames[i], values[i]);
+        }
+        return args;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.service.CommandBatchCommitter.Pending;
+import com.example.Account2.type.BalanceStrategy;
+import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 그룹 커밋 (account.balance.group-commit.enabled, redis-lock | optimistic 전략에서만)
+ * 여러 요청 스레드의 잔액 사용/취소를 window 동안(또는 maxBatch 개가 찰 때까지) 모아
+ * 하나의 트랜잭션, 한 번의 커밋으로 처리하고, 커밋이 끝난 뒤 각 요청 스레드를 깨운다.
+ * 계좌 잠금(redis-lock)은 요청 스레드가 커밋이 끝날 때까지 쥐고 있으므로 묶음 안에서도 그대로 유지된다.
+ * 대기열(queueCapacity)이 가득 차면 요청 스레드가 쌓이지 않도록 바로 거절한다.
+ */
+@Slf4j
+@Component
+public class GroupCommitter {
+    private final CommandBatchCommitter committer;
+    private final boolean enabled;
+    private final long windowNanos;
+    private final int maxBatch;
+    private final BlockingQueue<Pending> queue;
+    private final Thread thread;
+    private final DistributionSummary batchSize;
+    private final Timer commitTimer;
+    private final Counter rejected;
+
+    public GroupCommitter(TransactionService transactionService,
+                          AccountProperties accountProperties,
+                          MeterRegistry meterRegistry) {
+        AccountProperties.Balance balance = accountProperties.getBalance();
+        AccountProperties.GroupCommit groupCommit = balance.getGroupCommit();
+        this.committer = new CommandBatchCommitter(transactionService::applyGroupCommit,
+                balance.getOptimistic().getMaxAttempts());
+        //actor 전략은 자체적으로 커밋을 묶는다.
+        //atomic-sql 은 잠금 없는 조건부 UPDATE 와 엔티티 @Version 갱신이 충돌하므로 묶지 않는다.
+        this.enabled = groupCommit.isEnabled()
+                && balance.getStrategy() != BalanceStrategy.ACTOR
+                && balance.getStrategy() != BalanceStrategy.ATOMIC_SQL;
+        this.windowNanos = groupCommit.getWindow().toNanos();
+        this.maxBatch = groupCommit.getMaxBatch();
+        this.queue = new ArrayBlockingQueue<>(groupCommit.getQueueCapacity());
+        this.batchSize = DistributionSummary.builder("account.group-commit.batch.size")
+                .register(meterRegistry);
+        this.commitTimer = Timer.builder("account.group-commit.latency")
+                .register(meterRegistry);
+        this.rejected = meterRegistry.counter("account.group-commit.rejected");
+        this.thread = new Thread(this::run, "group-commit");
+        this.thread.setDaemon(true);
+        if (enabled) {
+            thread.start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public CompletableFuture<TransactionDto> submit(BalanceCommand command) {
+        if (!enabled) {
+            throw new IllegalStateException("account.balance.group-commit is not enabled");
+        }
+        Pending pending = new Pending(command);
+        if (!queue.offer(pending)) {
+            //대기열이 가득 찼다면 잠금 대기 초과와 같은 응답을 준다.
+            rejected.increment();
+            pending.future().completeExceptionally(
+                    new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        }
+        return pending.future();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        thread.interrupt();
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                collect(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (!batch.isEmpty()) {
+                batchSize.record(batch.size());
+                commitTimer.record(() -> committer.commit(batch));
+                batch.clear();
+            }
+        }
+        queue.drainTo(batch);
+        CommandBatchCommitter.failAll(batch, new AccountException(ErrorCode.UNEXPECT_ERROR));
+    }
+
+    /**
+     * 첫 명령을 기다린 뒤, window 가 끝나거나 maxBatch 개가 찰 때까지 더 모은다.
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + windowNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatch || remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.Account2.service;
+
+import com.example.Account2.aop.Idempotent;
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+/**
+ * Idempotency-Key 헤더 처리
+ * 계좌 잠금(LockAopAspect) 보다 바깥에서 실행되므로 재요청은 잠금, 검증, 거래 기록을 모두 건너뛴다.
+ * 1. 처음 들어온 키는 선점한 뒤 실행하고 응답을 기록한다. (실패하면 선점을 풀어 다시 시도할 수 있다.)
+ * 2. 처리가 끝난 키는 기록된 응답을 그대로 돌려준다.
+ * 3. 처리 중인 키, 다른 요청 본문으로 재사용된 키는 거절한다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(LockAopAspect.ORDER - 1)
+public class IdempotencyAspect {
+    public static final String HEADER = "Idempotency-Key";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore idempotencyStore;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Counter replayed;
+
+    public IdempotencyAspect(IdempotencyStore idempotencyStore,
+                             ObjectMapper objectMapper,
+                             AccountProperties accountProperties,
+                             MeterRegistry meterRegistry) {
+        this.idempotencyStore = idempotencyStore;
+        this.objectMapper = objectMapper;
+        this.enabled = accountProperties.getIdempotency().isEnabled();
+        this.replayed = meterRegistry.counter("account.idempotency.replayed");
+    }
+
+    @Around("@annotation(idempotent)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, Idempotent idempotent) throws Throwable {
+        String idempotencyKey = enabled ? getIdempotencyKey() : null;
+        if (idempotencyKey == null) {
+            return pjp.proceed();
+        }
+        if (idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        String key = idempotent.value() + ":" + idempotencyKey;
+        String fingerprint = objectMapper.writeValueAsString(pjp.getArgs());
+
+        IdempotencyStore.Entry existing = idempotencyStore.claim(key, fingerprint);
+        if (existing != null) {
+            return replay(pjp, existing, fingerprint);
+        }
+        Object response;
+        try {
+            response = pjp.proceed();
+        } catch (Throwable e) {
+            idempotencyStore.release(key, fingerprint);
+            throw e;
+        }
+        idempotencyStore.complete(key, fingerprint, objectMapper.writeValueAsString(response));
+        return response;
+    }
+
+    private Object replay(ProceedingJoinPoint pjp, IdempotencyStore.Entry existing,
+                          String fingerprint) throws Exception {
+        if (!existing.fingerprint().equals(fingerprint)) {
+            throw new AccountException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (!existing.isCompleted()) {
+            throw new AccountException(ErrorCode.IDEMPOTENT_REQUEST_IN_PROGRESS);
+        }
+        replayed.increment();
+        Class<?> returnType = ((MethodSignature) pjp.getSignature()).getReturnType();
+        return objectMapper.readValue(existing.response(), returnType);
+    }
+
+    private static String getIdempotencyKey() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return null;
+        }
+        String idempotencyKey = attributes.getRequest().getHeader(HEADER);
+        return StringUtils.hasText(idempotencyKey) ? idempotencyKey : null;
+    }
+}
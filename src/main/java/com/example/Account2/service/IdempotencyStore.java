@@ -0,0 +1,81 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Idempotency-Key 저장소
+ * Redis 해시(항목별 TTL) 에 키별로 요청 지문과 처음 응답을 보관한다.
+ * 처리 중 선점은 inProgressTtl 동안만 두고, 응답을 기록할 때 ttl 로 늘린다.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    private static final String MAP_NAME = "IDEMPOTENCY";
+
+    private final RMapCache<String, Entry> entries;
+    private final long ttlMillis;
+    private final long inProgressTtlMillis;
+
+    public IdempotencyStore(RedissonClient redissonClient,
+                            ObjectMapper objectMapper,
+                            AccountProperties accountProperties) {
+        AccountProperties.Idempotency idempotency = accountProperties.getIdempotency();
+        this.entries = redissonClient.getMapCache(MAP_NAME,
+                new TypedJsonJacksonCodec(String.class, Entry.class, objectMapper));
+        this.ttlMillis = idempotency.getTtl().toMillis();
+        this.inProgressTtlMillis = idempotency.getInProgressTtl().toMillis();
+    }
+
+    /**
+     * 키를 선점한다. 선점했다면 null, 이미 있는 키라면 그 기록을 돌려준다.
+     */
+    public Entry claim(String key, String fingerprint) {
+        return entries.putIfAbsent(key, Entry.inProgress(fingerprint),
+                inProgressTtlMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 처음 응답을 ttl 동안 기록한다. 실패하면 키는 inProgressTtl 동안 처리 중으로 남는다.
+     */
+    public void complete(String key, String fingerprint, String response) {
+        try {
+            entries.fastPut(key, new Entry(fingerprint, response), ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("Failed to record idempotent response, key : {}", key, e);
+        }
+    }
+
+    /**
+     * 실패한 요청은 선점을 풀어 같은 키로 다시 시도할 수 있게 한다.
+     */
+    public void release(String key, String fingerprint) {
+        try {
+            entries.remove(key, Entry.inProgress(fingerprint));
+        } catch (Exception e) {
+            log.error("Failed to release idempotency key : {}", key, e);
+        }
+    }
+
+    /**
+     * response 가 null 이면 아직 처리 중이다.
+     */
+    public record Entry(String fingerprint, String response) {
+        static Entry inProgress(String fingerprint) {
+            return new Entry(fingerprint, null);
+        }
+
+        @JsonIgnore
+        public boolean isCompleted() {
+            return response != null;
+        }
+    }
+}
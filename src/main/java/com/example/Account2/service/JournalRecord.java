@@ -0,0 +1,123 @@
+package com.example.Account2.service;
+
+import com.example.Account2.domain.Transaction;
+import com.example.Account2.type.TransactionResultType;
+import com.example.Account2.type.TransactionType;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * 거래 저널 레코드 (고정 길이 60 byte, big endian)
+ * [int 길이][int CRC32C(본문)]
+ * [long transactionId][long accountId][10 byte accountNumber][byte 거래 종류][byte 결과]
+ * [long amount][long balanceSnapshot][long transactedAt(epoch ms)]
+ * 길이가 0 이면 아직 기록되지 않은 자리이다. (세그먼트 파일은 0 으로 채워져 있다.)
+ */
+public record JournalRecord(
+        long transactionId,
+        long accountId,
+        String accountNumber,
+        TransactionType transactionType,
+        TransactionResultType transactionResultType,
+        long amount,
+        long balanceSnapshot,
+        LocalDateTime transactedAt) {
+    static final int ACCOUNT_NUMBER_SIZE = 10;
+    static final int PAYLOAD_SIZE = 8 + 8 + ACCOUNT_NUMBER_SIZE + 1 + 1 + 8 + 8 + 8;
+    static final int RECORD_SIZE = 4 + 4 + PAYLOAD_SIZE;
+
+    public static JournalRecord from(Transaction transaction) {
+        return new JournalRecord(
+                transaction.getTransactionId(),
+                transaction.getAccount().getId(),
+                transaction.getAccount().getAccountNumber(),
+                transaction.getTransactionType(),
+                transaction.getTransactionResultType(),
+                transaction.getAmount(),
+                transaction.getBalanceSanpshot(),
+                transaction.getTransactedAt());
+    }
+
+    /**
+     * 잔액에 더해지는 금액 (실패 거래는 0)
+     */
+    public long balanceDelta() {
+        if (transactionResultType != TransactionResultType.S) {
+            return 0;
+        }
+        return transactionType == TransactionType.USE ? -amount : amount;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+        int start = buffer.position();
+        ByteBuffer payload = buffer.slice(start + 8, PAYLOAD_SIZE);
+        payload.putLong(transactionId);
+        payload.putLong(accountId);
+        payload.put(fixedAccountNumber());
+        payload.put((byte) transactionType.ordinal());
+        payload.put((byte) transactionResultType.ordinal());
+        payload.putLong(amount);
+        payload.putLong(balanceSnapshot);
+        payload.putLong(transactedAt.toInstant(ZoneOffset.UTC).toEpochMilli());
+
+        buffer.putInt(start + 4, checksum(buffer, start));
+        //길이를 마지막에 써서 본문이 다 써진 레코드만 유효하게 한다.
+        buffer.putInt(start, PAYLOAD_SIZE);
+        buffer.position(start + RECORD_SIZE);
+    }
+
+    /**
+     * 현재 위치의 레코드를 읽고 다음 레코드로 넘어간다.
+     * 기록되지 않았거나 손상된 자리라면 위치를 옮기지 않고 null 을 반환한다.
+     */
+    static JournalRecord readFrom(ByteBuffer buffer) {
+        int start = buffer.position();
+        if (buffer.remaining() < RECORD_SIZE
+                || buffer.getInt(start) != PAYLOAD_SIZE
+                || buffer.getInt(start + 4) != checksum(buffer, start)) {
+            return null;
+        }
+        ByteBuffer payload = buffer.slice(start + 8, PAYLOAD_SIZE);
+        long transactionId = payload.getLong();
+        long accountId = payload.getLong();
+        byte[] accountNumber = new byte[ACCOUNT_NUMBER_SIZE];
+        payload.get(accountNumber);
+        TransactionType transactionType = TransactionType.values()[payload.get()];
+        TransactionResultType transactionResultType = TransactionResultType.values()[payload.get()];
+        long amount = payload.getLong();
+        long balanceSnapshot = payload.getLong();
+        LocalDateTime transactedAt = LocalDateTime.ofInstant(
+                Instant.ofEpochMilli(payload.getLong()), ZoneOffset.UTC);
+        buffer.position(start + RECORD_SIZE);
+        return new JournalRecord(transactionId, accountId,
+                new String(accountNumber, StandardCharsets.US_ASCII).trim(),
+                transactionType, transactionResultType, amount, balanceSnapshot, transactedAt);
+    }
+
+    /**
+     * 레코드 자리에 무언가 쓰여 있는지 (손상 여부와 무관)
+     */
+    static boolean isWritten(ByteBuffer buffer) {
+        return buffer.remaining() >= 4 && buffer.getInt(buffer.position()) != 0;
+    }
+
+    private byte[] fixedAccountNumber() {
+        byte[] fixed = new byte[ACCOUNT_NUMBER_SIZE];
+        Arrays.fill(fixed, (byte) ' ');
+        byte[] bytes = accountNumber.getBytes(StandardCharsets.US_ASCII);
+        System.arraycopy(bytes, 0, fixed, 0, Math.min(bytes.length, ACCOUNT_NUMBER_SIZE));
+        return fixed;
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + 8, PAYLOAD_SIZE));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Paths;
+
+/**
+ * account.journal.replay-on-startup=true 로 기동하면 기동 직후 저널을 재생한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class JournalReplayRunner implements ApplicationRunner {
+    private final JournalReplayService journalReplayService;
+    private final AccountProperties accountProperties;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        AccountProperties.Journal journal = accountProperties.getJournal();
+        if (journal.isReplayOnStartup()) {
+            journalReplayService.replay(Paths.get(journal.getDirectory()));
+        }
+    }
+}
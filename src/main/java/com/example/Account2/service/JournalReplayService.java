@@ -0,0 +1,107 @@
+package com.example.Account2.service;
+
+import com.example.Account2.domain.Account;
+import com.example.Account2.domain.Transaction;
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.TransactionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 거래 저널 재생
+ * DB 를 백업 시점으로 되돌린 뒤 저널을 재생하면, DB 에 없는 거래 행을 다시 만들고 그 금액만큼 계좌 잔액을 되돌려 놓는다.
+ * 이미 있는 거래(transactionId 기준)는 건너뛰므로 여러 번 재생해도 결과가 같다.
+ * CHUNK_SIZE 개씩 한 트랜잭션으로 처리한다.
+ * 저널 기록이 한 번이라도 실패했으면(누락 표시 파일이 있으면) 빠진 거래가 있으므로 재생을 거부한다.
+ */
+@Slf4j
+@Service
+public class JournalReplayService {
+    private static final int CHUNK_SIZE = 1000;
+
+    private final TransactionRepository transactionRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public JournalReplayService(TransactionRepository transactionRepository,
+                                AccountRepository accountRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.transactionRepository = transactionRepository;
+        this.accountRepository = accountRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * read : 읽은 레코드 수, applied : 복구한 거래 수, skipped : 계좌가 없어 복구하지 못한 거래 수
+     */
+    public record Result(long read, long applied, long skipped) {
+    }
+
+    public Result replay(Path directory) {
+        if (TransactionJournal.hasGaps(directory)) {
+            throw new IllegalStateException("Journal has gaps, refusing to replay : "
+                    + directory.resolve(TransactionJournal.GAPS_FILE));
+        }
+        long[] counts = new long[3];
+        List<JournalRecord> chunk = new ArrayList<>(CHUNK_SIZE);
+        TransactionJournal.read(directory, record -> {
+            chunk.add(record);
+            if (chunk.size() == CHUNK_SIZE) {
+                applyChunk(chunk, counts);
+            }
+        });
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, counts);
+        }
+        Result result = new Result(counts[0], counts[1], counts[2]);
+        log.info("Journal replayed : {}", result);
+        return result;
+    }
+
+    private void applyChunk(List<JournalRecord> chunk, long[] counts) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> existing = new HashSet<>(transactionRepository.findExistingTransactionIds(
+                    chunk.stream().map(JournalRecord::transactionId).toList()));
+            Map<Long, Optional<Account>> accounts = new HashMap<>();
+            List<Transaction> transactions = new ArrayList<>();
+            for (JournalRecord record : chunk) {
+                counts[0]++;
+                //같은 묶음 안에 같은 거래가 두 번 기록된 경우도 한 번만 반영한다.
+                if (!existing.add(record.transactionId())) {
+                    continue;
+                }
+                Optional<Account> account = accounts.computeIfAbsent(record.accountId(),
+                        accountRepository::findById);
+                if (account.isEmpty()) {
+                    log.warn("Account not found for journal record : {}", record);
+                    counts[2]++;
+                    continue;
+                }
+                account.get().setBalance(account.get().getBalance() + record.balanceDelta());
+                transactions.add(Transaction.builder()
+                        .transactionType(record.transactionType())
+                        .transactionResultType(record.transactionResultType())
+                        .account(account.get())
+                        .amount(record.amount())
+                        .balanceSanpshot(record.balanceSnapshot())
+                        .transactionId(record.transactionId())
+                        .transactedAt(record.transactedAt())
+                        .build());
+                counts[1]++;
+            }
+            transactionRepository.saveAll(transactions);
+        });
+        chunk.clear();
+    }
+}
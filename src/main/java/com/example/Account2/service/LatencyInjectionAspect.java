@@ -0,0 +1,91 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.LatencyInjectionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잠금 경합 재현용 지연 주입
+ * latency-injection 프로파일에서만 등록되며, 계좌 잠금(LockAopAspect) 안쪽에서 실행된다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Profile("latency-injection")
+@RequiredArgsConstructor
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class LatencyInjectionAspect {
+    private final LatencyInjectionProperties latencyInjectionProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        String endpoint = getEndpoint();
+        LatencyInjectionProperties.Endpoint config =
+                latencyInjectionProperties.getEndpoints().get(endpoint);
+        if (config != null) {
+            inject(endpoint, config);
+        }
+        return pjp.proceed();
+    }
+
+    private void inject(String endpoint, LatencyInjectionProperties.Endpoint config)
+            throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() >= config.getProbability()) {
+            return;
+        }
+        long delayMillis = nextDelayMillis(config, random);
+        log.debug("Injecting {}ms latency into {}", delayMillis, endpoint);
+
+        Thread.sleep(delayMillis);
+        Timer.builder("latency.injection")
+                .tag("endpoint", endpoint)
+                .tag("distribution", config.getDistribution().name())
+                .register(meterRegistry)
+                .record(delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    static long nextDelayMillis(LatencyInjectionProperties.Endpoint config,
+                                ThreadLocalRandom random) {
+        long min = config.getMin().toMillis();
+        long max = config.getMax().toMillis();
+        switch (config.getDistribution()) {
+            case UNIFORM:
+                return max > min ? random.nextLong(min, max + 1) : min;
+            case EXPONENTIAL:
+                double mean = config.getDelay().toMillis();
+                long sample = (long) (-mean * Math.log(1.0 - random.nextDouble()));
+                return Math.min(min + sample, max);
+            case FIXED:
+            default:
+                return config.getDelay().toMillis();
+        }
+    }
+
+    private static String getEndpoint() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object pattern = attributes.getAttribute(
+                HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        return pattern == null ? null : pattern.toString();
+    }
+}
@@ -1,25 +1,47 @@
 package com.example.Account2.service;
 
+import com.example.Account2.aop.AccountLock;
 import com.example.Account2.aop.AccountLockIdInterface;
+import com.example.Account2.config.AccountProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 
 @Aspect
 @Component
 @Slf4j
 @RequiredArgsConstructor
+@Order(LockAopAspect.ORDER)
 public class LockAopAspect {
+    /**
+     * 지연 주입 등 잠금 안에서 실행되어야 하는 aspect 는 이보다 낮은 우선순위를 가진다.
+     */
+    public static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1;
+
     private final LockService lockService;
-    @Around("@annotation(com.example.Account2.aop.AccountLock) && args(request)")
+    private final AccountProperties accountProperties;
+
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws  Throwable{
-        lockService.lock(request.getAccountNumber());
+        if (!accountProperties.getBalance().requiresAccountLock()) {
+            //잔액 변경 자체가 원자적이므로 잠금 불필요
+            return pjp.proceed();
+        }
+        if (accountProperties.getBalance().getSplitBalance().isSplit(request.getAccountNumber())) {
+            //분할 잔액 계좌는 슬롯 단위 원자적 UPDATE 로 처리한다.
+            return pjp.proceed();
+        }
+        lockService.lock(request.getAccountNumber(),
+                accountLock.tryLockTime(), accountLock.leaseTime());
         try {
             //before
             return pjp.proceed();
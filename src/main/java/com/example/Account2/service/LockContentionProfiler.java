@@ -0,0 +1,158 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.LockContentionReport;
+import org.HdrHistogram.AbstractHistogram;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.IntCountsHistogram;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잠금 경합 프로파일러
+ * 1. 모든 잠금 대기 시간은 전체 HDR 히스토그램에 기록한다.
+ * 2. 경합(대기가 contendedThreshold 이상이거나 잠금 실패)만 Space-Saving 으로 계좌별로 센다.
+ *    capacity 개의 counter 가 가득 차면 가장 작은 counter 를 새 계좌에 넘겨주므로
+ *    계좌 수와 관계없이 메모리는 capacity 개의 counter(+ 계좌별 히스토그램)로 고정된다.
+ *    count 는 실제보다 최대 error 만큼 크게 셀 수 있다.
+ * 3. optimistic 전략의 버전 충돌도 잠금 대기 대신 같은 Space-Saving counter 에 경합으로 센다. (recordConflict)
+ */
+@Component
+public class LockContentionProfiler {
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final boolean enabled;
+    private final int capacity;
+    private final long contendedThresholdNanos;
+    private final long maxWaitMicros;
+    private final ConcurrentHistogram waits;
+    private final Map<String, HotKey> hotKeys;
+    private long contended;
+
+    public LockContentionProfiler(AccountProperties accountProperties) {
+        AccountProperties.Profiler profiler = accountProperties.getLock().getProfiler();
+        this.enabled = profiler.isEnabled();
+        this.capacity = profiler.getCapacity();
+        this.contendedThresholdNanos = profiler.getContendedThreshold().toNanos();
+        this.maxWaitMicros = profiler.getMaxWait().toNanos() / 1000;
+        this.waits = new ConcurrentHistogram(maxWaitMicros, SIGNIFICANT_DIGITS);
+        this.hotKeys = new HashMap<>(capacity * 2);
+    }
+
+    public void recordAcquired(String accountNumber, long waitNanos) {
+        record(accountNumber, waitNanos, false);
+    }
+
+    public void recordRejected(String accountNumber, long waitNanos) {
+        record(accountNumber, waitNanos, true);
+    }
+
+    /**
+     * optimistic 전략의 버전 충돌 (대기 시간은 없으므로 히스토그램에는 기록하지 않는다.)
+     */
+    public void recordConflict(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (this) {
+            hit(accountNumber).conflicts++;
+        }
+    }
+
+    public synchronized LockContentionReport report(int top) {
+        return LockContentionReport.builder()
+                .capacity(capacity)
+                .contended(contended)
+                .waits(LockContentionReport.WaitSummary.from(waits))
+                .hotAccounts(hotKeys.values().stream()
+                        .sorted(Comparator.comparingLong(HotKey::getCount).reversed())
+                        .limit(top)
+                        .map(hotKey -> LockContentionReport.HotAccount.builder()
+                                .accountNumber(hotKey.accountNumber)
+                                .contended(hotKey.count)
+                                .error(hotKey.error)
+                                .rejected(hotKey.rejected)
+                                .conflicts(hotKey.conflicts)
+                                .waits(LockContentionReport.WaitSummary.from(hotKey.waits))
+                                .build())
+                        .toList())
+                .build();
+    }
+
+    public synchronized void reset() {
+        waits.reset();
+        hotKeys.clear();
+        contended = 0;
+    }
+
+    private void record(String accountNumber, long waitNanos, boolean rejected) {
+        if (!enabled) {
+            return;
+        }
+        long waitMicros = Math.min(TimeUnit.NANOSECONDS.toMicros(waitNanos), maxWaitMicros);
+        waits.recordValue(waitMicros);
+        if (!rejected && waitNanos < contendedThresholdNanos) {
+            return;
+        }
+        synchronized (this) {
+            HotKey hotKey = hit(accountNumber);
+            if (rejected) {
+                hotKey.rejected++;
+            }
+            hotKey.waits.recordValue(waitMicros);
+        }
+    }
+
+    private HotKey hit(String accountNumber) {
+        HotKey hotKey = hotKeys.get(accountNumber);
+        if (hotKey == null) {
+            hotKey = takeCounter(accountNumber);
+        }
+        hotKey.count++;
+        contended++;
+        return hotKey;
+    }
+
+    /**
+     * 빈 counter 가 없으면 가장 작은 counter 를 넘겨받는다. (Space-Saving)
+     */
+    private HotKey takeCounter(String accountNumber) {
+        HotKey hotKey;
+        if (hotKeys.size() < capacity) {
+            hotKey = new HotKey(new IntCountsHistogram(maxWaitMicros, SIGNIFICANT_DIGITS));
+        } else {
+            hotKey = hotKeys.values().stream()
+                    .min(Comparator.comparingLong(HotKey::getCount))
+                    .orElseThrow();
+            hotKeys.remove(hotKey.accountNumber);
+            hotKey.error = hotKey.count;
+            hotKey.rejected = 0;
+            hotKey.conflicts = 0;
+            hotKey.waits.reset();
+        }
+        hotKey.accountNumber = accountNumber;
+        hotKeys.put(accountNumber, hotKey);
+        return hotKey;
+    }
+
+    private static final class HotKey {
+        private final AbstractHistogram waits;
+        private String accountNumber;
+        private long count;
+        private long error;
+        private long rejected;
+        private long conflicts;
+
+        private HotKey(AbstractHistogram waits) {
+            this.waits = waits;
+        }
+
+        private long getCount() {
+            return count;
+        }
+    }
+}
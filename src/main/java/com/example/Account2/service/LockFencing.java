@@ -0,0 +1,129 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.domain.Account;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 계좌 잠금 fencing token (account.lock.lease.fencing)
+ * 1. 잠금을 얻을 때마다 계좌별 Redis 카운터를 올려 토큰을 받고, 잠금을 쥔 스레드에 보관한다.
+ * 2. 커밋 직전에 계좌 행의 lock_token 보다 작은 토큰이면 거절하고, 아니면 토큰을 기록한다.
+ *    (@Version 과 같은 행에 기록하므로 동시에 커밋하는 두 보유자 중 하나는 반드시 실패한다.)
+ * 잠금이 만료된 뒤 늦게 커밋하는 이전 보유자의 쓰기를 막으므로 lease 를 짧게 잡을 수 있다.
+ */
+@Slf4j
+@Component
+public class LockFencing {
+    private static final String TOKEN_KEY_PREFIX = "ACFT:";
+    private static final ThreadLocal<Map<String, Long>> TOKENS =
+            ThreadLocal.withInitial(HashMap::new);
+
+    private final RedissonClient redissonClient;
+    private final boolean enabled;
+    private final Counter rejected;
+
+    public LockFencing(RedissonClient redissonClient,
+                       AccountProperties accountProperties,
+                       MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.enabled = accountProperties.getLock().getLease().isFencing();
+        this.rejected = meterRegistry.counter("account.lock.fencing.rejected");
+    }
+
+    /**
+     * 잠금을 얻은 직후 호출한다.
+     */
+    public void issue(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        TOKENS.get().put(accountNumber, counter(accountNumber).incrementAndGet());
+    }
+
+    /**
+     * 잠금을 해제할 때 호출한다.
+     */
+    public void clear(String accountNumber) {
+        if (!enabled) {
+            return;
+        }
+        TOKENS.get().remove(accountNumber);
+    }
+
+    /**
+     * 현재 스레드가 가진 이 계좌의 토큰 (없으면 null)
+     * 다른 스레드에서 커밋할 때(그룹 커밋) 요청 스레드의 토큰을 넘기는 데 쓴다.
+     */
+    public Long currentToken(String accountNumber) {
+        if (!enabled) {
+            return null;
+        }
+        return TOKENS.get().get(accountNumber);
+    }
+
+    /**
+     * 현재 스레드가 이 계좌의 토큰을 가지고 있으면 커밋 직전에 토큰을 확인한다.
+     */
+    public void fenceBeforeCommit(Account account) {
+        fenceBeforeCommit(account, currentToken(account.getAccountNumber()));
+    }
+
+    /**
+     * 주어진 토큰으로 커밋 직전에 확인한다. (token 이 null 이면 확인하지 않는다.)
+     */
+    public void fenceBeforeCommit(Account account, Long token) {
+        if (!enabled || token == null || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                fence(account, token);
+            }
+        });
+    }
+
+    private void fence(Account account, long token) {
+        Long lastToken = account.getLockToken();
+        if (lastToken == null || token >= lastToken) {
+            account.setLockToken(token);
+            return;
+        }
+        log.error("Stale lock token for accountNumber : {}, token : {} < {}",
+                account.getAccountNumber(), token, lastToken);
+        rejected.increment();
+        catchUp(account.getAccountNumber(), lastToken);
+        throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+    }
+
+    /**
+     * Redis 카운터가 DB 에 기록된 토큰보다 뒤처졌다면(Redis 데이터 유실 등) 따라잡는다.
+     */
+    private void catchUp(String accountNumber, long lastToken) {
+        try {
+            RAtomicLong counter = counter(accountNumber);
+            long current = counter.get();
+            while (current < lastToken && !counter.compareAndSet(current, lastToken)) {
+                current = counter.get();
+            }
+        } catch (Exception e) {
+            log.error("Failed to catch up lock token, accountNumber : {}", accountNumber, e);
+        }
+    }
+
+    private RAtomicLong counter(String accountNumber) {
+        return redissonClient.getAtomicLong(TOKEN_KEY_PREFIX + accountNumber);
+    }
+}
@@ -1,44 +1,226 @@
 package com.example.Account2.service;
 
+import com.example.Account2.config.AccountProperties;
 import com.example.Account2.exception.AccountException;
 import com.example.Account2.type.ErrorCode;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * 계좌 잠금
+ * 1. 같은 JVM 의 경쟁자는 계좌 번호별 stripe(ReentrantLock)에서 먼저 줄을 선다.
+ * 2. stripe 를 얻은 스레드만 Redis 분산 잠금(RLock)을 시도한다.
+ * 3. 같은 계좌의 대기자가 maxQueueDepth 를 넘으면 기다리지 않고 바로 거절한다. (부하 차단)
+ *    대기자는 stripe 가 아니라 계좌 번호별로 세므로 같은 stripe 의 다른 계좌는 거절되지 않는다.
+ * fair=true 면 stripe 와 Redis 잠금(RFairLock) 모두 도착 순서대로 잠금을 준다.
+ * (RLock 과 RFairLock 은 서로를 배제하지 않으므로 모든 노드가 같은 설정이어야 한다.)
+ * 지표 : account.lock.wait(tier), account.lock.hold, account.lock.failures(tier, reason)
+ * 계좌별 경합은 LockContentionProfiler 에 남긴다.
+ * lease.watchdog=true 면 leaseTime 대신 짧은 lease 를 잠금 해제까지 자동 연장하고,
+ * lease.fencing=true 면 잠금마다 fencing token 을 받는다. (LockFencing)
+ * 두 모드에서는 Redis 오류 시 잠금 없이 진행하지 않고 거절한다. (짧은 lease 에서 중복 차감 방지)
+ */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class LockService {
+    private static final long DEFAULT_WAIT_TIME_MILLIS = 1000L;
+    private static final long DEFAULT_LEASE_TIME_MILLIS = 15000L;
+
     private final RedissonClient redissonClient;
+    private final ReentrantLock[] stripes;
+    //계좌 번호별 대기자 수, 0 이 되면 지운다.
+    private final ConcurrentMap<String, Integer> waiters = new ConcurrentHashMap<>();
+    private final boolean fair;
+    private final int maxQueueDepth;
+    private final Timer localWaitTimer;
+    private final Timer remoteWaitTimer;
+    private final Timer holdTimer;
+    private final long[] acquiredAt;
+    private final MeterRegistry meterRegistry;
+    private final LockContentionProfiler lockContentionProfiler;
+    private final LockFencing lockFencing;
+    private final boolean watchdog;
+    private final boolean failClosed;
+
+    public LockService(RedissonClient redissonClient,
+                       AccountProperties accountProperties,
+                       MeterRegistry meterRegistry,
+                       LockContentionProfiler lockContentionProfiler,
+                       LockFencing lockFencing) {
+        this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
+        this.lockContentionProfiler = lockContentionProfiler;
+        this.lockFencing = lockFencing;
+        AccountProperties.Lock lock = accountProperties.getLock();
+        this.fair = lock.isFair();
+        this.maxQueueDepth = lock.getMaxQueueDepth();
+        this.watchdog = lock.getLease().isWatchdog();
+        this.failClosed = watchdog || lock.getLease().isFencing();
+        this.stripes = new ReentrantLock[lock.getStripes()];
+        //stripe 를 쥔 스레드만 읽고 쓴다.
+        this.acquiredAt = new long[stripes.length];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock(fair);
+        }
+        this.localWaitTimer = Timer.builder("account.lock.wait")
+                .tag("tier", "local")
+                .register(meterRegistry);
+        this.remoteWaitTimer = Timer.builder("account.lock.wait")
+                .tag("tier", "remote")
+                .register(meterRegistry);
+        this.holdTimer = Timer.builder("account.lock.hold")
+                .register(meterRegistry);
+    }
 
     public void lock(String accountNumber){
-        RLock lock = redissonClient.getLock(getLockKey(accountNumber));
+        lock(accountNumber, DEFAULT_WAIT_TIME_MILLIS, DEFAULT_LEASE_TIME_MILLIS);
+    }
+
+    /**
+     * waitMillis : JVM 내부 대기와 Redis 대기를 합친 최대 대기 시간
+     * leaseMillis : 해제하지 못했을 때 Redis 잠금이 풀리는 시간 (watchdog 모드에서는 무시)
+     */
+    public void lock(String accountNumber, long waitMillis, long leaseMillis){
         log.debug("Trying lock for accountNumber : {}", accountNumber);
+        long startedAt = System.nanoTime();
+        ReentrantLock localLock = lockLocal(accountNumber, waitMillis, startedAt);
+        long localWaitNanos = System.nanoTime() - startedAt;
+        localWaitTimer.record(localWaitNanos, TimeUnit.NANOSECONDS);
 
+        RLock lock = getRemoteLock(accountNumber);
+        long remoteStartedAt = System.nanoTime();
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            long remainingMillis = Math.max(0L,
+                    waitMillis - TimeUnit.NANOSECONDS.toMillis(localWaitNanos));
+            //leaseTime -1 : Redisson watchdog 이 해제할 때까지 연장한다.
+            boolean isLock = lock.tryLock(remainingMillis, watchdog ? -1L : leaseMillis,
+                    TimeUnit.MILLISECONDS);
             if(!isLock){
                 log.error("=========Lock acquisition failed=========");
+                countFailure("remote", "timeout");
+                lockContentionProfiler.recordRejected(accountNumber, System.nanoTime() - startedAt);
+                localLock.unlock();
                 throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
             }
+            lockFencing.issue(accountNumber);
         } catch (AccountException e) {
             throw e;
 
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            countFailure("remote", "interrupted");
+            lockContentionProfiler.recordRejected(accountNumber, System.nanoTime() - startedAt);
+            localLock.unlock();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
         } catch (Exception e){
             log.error("Redis Lock failed", e);
+            countFailure("remote", "redis_error");
+            if (failClosed) {
+                //잠금은 얻었지만 토큰 발급에 실패했을 수 있다.
+                unlockRemoteQuietly(lock);
+                lockContentionProfiler.recordRejected(accountNumber, System.nanoTime() - startedAt);
+                localLock.unlock();
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } finally {
+            remoteWaitTimer.record(System.nanoTime() - remoteStartedAt, TimeUnit.NANOSECONDS);
         }
+        long acquiredNanos = System.nanoTime();
+        acquiredAt[getStripeIndex(accountNumber)] = acquiredNanos;
+        lockContentionProfiler.recordAcquired(accountNumber, acquiredNanos - startedAt);
 
     }
 
     public void unlock(String accountNumber){
         log.debug("Unlock for accountNumber : {} ", accountNumber);
 
-        redissonClient.getLock(getLockKey(accountNumber)).unlock();
+        lockFencing.clear(accountNumber);
+        try {
+            //fail-open 으로 Redis 잠금 없이 진행했으면 해제할 잠금이 없다.
+            RLock lock = getRemoteLock(accountNumber);
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        } finally {
+            ReentrantLock localLock = getStripe(accountNumber);
+            if (localLock.isHeldByCurrentThread()) {
+                holdTimer.record(System.nanoTime() - acquiredAt[getStripeIndex(accountNumber)],
+                        TimeUnit.NANOSECONDS);
+                localLock.unlock();
+            }
+        }
+    }
+
+    private static void unlockRemoteQuietly(RLock lock) {
+        try {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        } catch (Exception e) {
+            log.error("Redis unlock failed", e);
+        }
+    }
+
+    private ReentrantLock lockLocal(String accountNumber, long waitMillis, long startedAt) {
+        int stripeIndex = getStripeIndex(accountNumber);
+        ReentrantLock localLock = stripes[stripeIndex];
+        if (maxQueueDepth > 0 && waiters.merge(accountNumber, 1, Integer::sum) > maxQueueDepth) {
+            leaveQueue(accountNumber);
+            log.error("=========Lock queue is full=========");
+            countFailure("local", "queue_full");
+            lockContentionProfiler.recordRejected(accountNumber, System.nanoTime() - startedAt);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        try {
+            //fair 잠금의 tryLock() 은 줄을 무시하므로 대기 시간이 0 이어도 시간 제한 버전을 쓴다.
+            if (!localLock.tryLock(waitMillis, TimeUnit.MILLISECONDS)) {
+                log.error("=========Local lock acquisition failed=========");
+                countFailure("local", "timeout");
+                lockContentionProfiler.recordRejected(accountNumber, System.nanoTime() - startedAt);
+                throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            countFailure("local", "interrupted");
+            lockContentionProfiler.recordRejected(accountNumber, System.nanoTime() - startedAt);
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        } finally {
+            if (maxQueueDepth > 0) {
+                leaveQueue(accountNumber);
+            }
+        }
+        return localLock;
+    }
+
+    private void leaveQueue(String accountNumber) {
+        waiters.computeIfPresent(accountNumber, (key, count) -> count == 1 ? null : count - 1);
+    }
+
+    private ReentrantLock getStripe(String accountNumber) {
+        return stripes[getStripeIndex(accountNumber)];
+    }
+
+    private int getStripeIndex(String accountNumber) {
+        return Math.floorMod(accountNumber.hashCode(), stripes.length);
+    }
+
+    private void countFailure(String tier, String reason) {
+        meterRegistry.counter("account.lock.failures", "tier", tier, "reason", reason)
+                .increment();
+    }
+
+    private RLock getRemoteLock(String accountNumber) {
+        String lockKey = getLockKey(accountNumber);
+        return fair ? redissonClient.getFairLock(lockKey) : redissonClient.getLock(lockKey);
     }
 
     private static String getLockKey(String accountNumber) {
@@ -0,0 +1,98 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.BalanceStrategy;
+import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * optimistic 전략의 재시도
+ * 트랜잭션 바깥에서 실행되어야 하므로 @Transactional 보다 우선순위가 높다.
+ * 충돌 지표(account.balance.optimistic.conflicts)는 계좌별 tag 없이 센다. (계좌 수만큼 시계열이 생기지 않도록)
+ * 계좌별 충돌은 메모리가 고정된 LockContentionProfiler 에 센다.
+ */
+@Slf4j
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class OptimisticRetryAspect {
+    private final AccountProperties accountProperties;
+    private final Counter conflicts;
+    private final LockContentionProfiler lockContentionProfiler;
+
+    public OptimisticRetryAspect(AccountProperties accountProperties,
+                                 MeterRegistry meterRegistry,
+                                 LockContentionProfiler lockContentionProfiler) {
+        this.accountProperties = accountProperties;
+        this.conflicts = meterRegistry.counter("account.balance.optimistic.conflicts");
+        this.lockContentionProfiler = lockContentionProfiler;
+    }
+
+    @Around("@annotation(com.example.Account2.aop.OptimisticRetry)")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        AccountProperties.Balance balance = accountProperties.getBalance();
+        if (balance.getStrategy() != BalanceStrategy.OPTIMISTIC) {
+            return pjp.proceed();
+        }
+
+        AccountProperties.Optimistic optimistic = balance.getOptimistic();
+        String accountNumber = getAccountNumber(pjp);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return pjp.proceed();
+            } catch (OptimisticLockingFailureException e) {
+                conflicts.increment();
+                lockContentionProfiler.recordConflict(accountNumber);
+                if (attempt >= optimistic.getMaxAttempts()) {
+                    log.error("Optimistic lock retries exhausted for accountNumber : {}", accountNumber);
+                    throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+                }
+                log.debug("Optimistic lock conflict for accountNumber : {}, attempt : {}",
+                        accountNumber, attempt);
+                backoff(optimistic, attempt);
+            }
+        }
+    }
+
+    private static void backoff(AccountProperties.Optimistic optimistic, int attempt) {
+        try {
+            Thread.sleep(backoffMillis(optimistic, attempt));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    /**
+     * full jitter : [0, min(maxBackoff, initialBackoff * 2^(attempt-1))]
+     */
+    static long backoffMillis(AccountProperties.Optimistic optimistic, int attempt) {
+        long ceiling = Math.min(optimistic.getMaxBackoff().toMillis(),
+                optimistic.getInitialBackoff().toMillis() << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static String getAccountNumber(ProceedingJoinPoint pjp) {
+        String[] parameterNames = ((MethodSignature) pjp.getSignature()).getParameterNames();
+        Object[] args = pjp.getArgs();
+        for (int i = 0; i < parameterNames.length; i++) {
+            if ("accountNumber".equals(parameterNames[i])) {
+                return String.valueOf(args[i]);
+            }
+        }
+        return "unknown";
+    }
+}
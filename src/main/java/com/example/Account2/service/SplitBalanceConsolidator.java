@@ -0,0 +1,58 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 분할 잔액 계좌의 슬롯 잔액을 consolidateInterval 마다 본 잔액으로 모은다.
+ * (출금이 본 잔액까지 내려오는 일을 줄인다.)
+ */
+@Slf4j
+@Component
+public class SplitBalanceConsolidator {
+    private final SplitBalanceService splitBalanceService;
+    private final Set<String> accountNumbers;
+    private final ScheduledExecutorService scheduler;
+
+    public SplitBalanceConsolidator(SplitBalanceService splitBalanceService,
+                                    AccountProperties accountProperties) {
+        AccountProperties.SplitBalance splitBalance = accountProperties.getBalance().getSplitBalance();
+        this.splitBalanceService = splitBalanceService;
+        this.accountNumbers = splitBalance.getAccountNumbers();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "split-balance-consolidator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (!accountNumbers.isEmpty()) {
+            long interval = splitBalance.getConsolidateInterval().toMillis();
+            scheduler.scheduleWithFixedDelay(this::consolidateAll, interval, interval,
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    void consolidateAll() {
+        for (String accountNumber : accountNumbers) {
+            try {
+                long moved = splitBalanceService.consolidate(accountNumber);
+                log.debug("Consolidated sub balances, accountNumber : {}, amount : {}",
+                        accountNumber, moved);
+            } catch (RuntimeException e) {
+                //다음 주기에 다시 시도한다.
+                log.warn("Failed to consolidate sub balances, accountNumber : {}", accountNumber, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.domain.Account;
+import com.example.Account2.domain.AccountSubBalance;
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.AccountSubBalanceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 분할 잔액 계좌(account.balance.split-balance)의 잔액 변경
+ * 1. 입금(취소)은 임의의 슬롯 하나에 더한다.
+ * 2. 출금(사용)은 임의의 슬롯부터 차례로 조건부 차감을 시도하고, 모두 모자라면 본 잔액(Account.balance)에서 차감한다.
+ * 3. 그래도 모자라면 슬롯 잔액을 본 잔액으로 모은 뒤(consolidate) 한 번 더 시도한다.
+ * 모든 변경이 행 단위 원자적 UPDATE 이므로 계좌 잠금이 필요 없다.
+ * (호출자가 트랜잭션 안에서 호출해야 한다.)
+ */
+@Slf4j
+@Service
+public class SplitBalanceService {
+    private final AccountRepository accountRepository;
+    private final AccountSubBalanceRepository accountSubBalanceRepository;
+    private final AccountProperties.SplitBalance splitBalance;
+    private final TransactionTemplate provisionTemplate;
+    private final Set<Long> provisioned = ConcurrentHashMap.newKeySet();
+
+    public SplitBalanceService(AccountRepository accountRepository,
+                               AccountSubBalanceRepository accountSubBalanceRepository,
+                               AccountProperties accountProperties,
+                               PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.accountSubBalanceRepository = accountSubBalanceRepository;
+        this.splitBalance = accountProperties.getBalance().getSplitBalance();
+        this.provisionTemplate = new TransactionTemplate(transactionManager);
+        this.provisionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isSplit(String accountNumber) {
+        return splitBalance.isSplit(accountNumber);
+    }
+
+    public void credit(Account account, Long amount) {
+        provision(account.getId());
+        int slot = ThreadLocalRandom.current().nextInt(splitBalance.getSlots());
+        accountSubBalanceRepository.credit(account.getId(), slot, amount);
+    }
+
+    /**
+     * 사용자/계좌 상태 검증은 호출자가 끝낸 상태여야 한다.
+     * @return 잔액이 모자라면 false
+     */
+    public boolean debit(Account account, Long userId, Long amount) {
+        provision(account.getId());
+        int slots = splitBalance.getSlots();
+        int start = ThreadLocalRandom.current().nextInt(slots);
+        for (int i = 0; i < slots; i++) {
+            if (accountSubBalanceRepository.debit(account.getId(), (start + i) % slots, amount) == 1) {
+                return true;
+            }
+        }
+        if (accountRepository.useBalance(userId, account.getAccountNumber(), amount) == 1) {
+            return true;
+        }
+        //슬롯마다 조금씩 남은 잔액을 합치면 충분할 수 있다.
+        if (moveToMain(account.getId(), account.getAccountNumber()) == 0) {
+            return false;
+        }
+        return accountRepository.useBalance(userId, account.getAccountNumber(), amount) == 1;
+    }
+
+    /**
+     * 본 잔액 + 모든 슬롯 잔액
+     */
+    public long totalBalance(Long accountId) {
+        return accountRepository.findTotalBalanceById(accountId);
+    }
+
+    /**
+     * 슬롯 잔액을 본 잔액으로 모은다. (주기 작업)
+     * @return 옮긴 금액
+     */
+    @Transactional
+    public long consolidate(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .map(account -> moveToMain(account.getId(), accountNumber))
+                .orElse(0L);
+    }
+
+    /**
+     * 읽은 슬롯 잔액만큼 조건부 차감에 성공한 금액만 본 잔액에 더하므로 동시 출금과 겹쳐도 금액이 새지 않는다.
+     */
+    private long moveToMain(Long accountId, String accountNumber) {
+        long moved = 0;
+        for (AccountSubBalance subBalance : accountSubBalanceRepository.findNonEmptyByAccountId(accountId)) {
+            if (accountSubBalanceRepository.debit(accountId, subBalance.getSlot(),
+                    subBalance.getBalance()) == 1) {
+                moved += subBalance.getBalance();
+            }
+        }
+        if (moved > 0) {
+            accountRepository.cancelBalance(accountNumber, moved);
+        }
+        return moved;
+    }
+
+    /**
+     * 슬롯 행이 없으면 별도 트랜잭션으로 만든다.
+     * 다른 노드가 동시에 만들면 unique 인덱스 위반으로 실패하지만, 그 경우에도 행은 이미 있다.
+     */
+    private void provision(Long accountId) {
+        if (provisioned.contains(accountId)) {
+            return;
+        }
+        try {
+            provisionTemplate.executeWithoutResult(status -> {
+                Set<Integer> existing = new HashSet<>(
+                        accountSubBalanceRepository.findSlotsByAccountId(accountId));
+                Account account = accountRepository.getReferenceById(accountId);
+                for (int slot = 0; slot < splitBalance.getSlots(); slot++) {
+                    if (!existing.contains(slot)) {
+                        accountSubBalanceRepository.save(AccountSubBalance.builder()
+                                .account(account)
+                                .slot(slot)
+                                .build());
+                    }
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Sub balance slots already provisioned, accountId : {}", accountId);
+        }
+        provisioned.add(accountId);
+    }
+}
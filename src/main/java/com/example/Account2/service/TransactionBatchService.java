@@ -0,0 +1,140 @@
+package com.example.Account2.service;
+
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.dto.UseBalance;
+import com.example.Account2.dto.UseBalanceBatch;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 잔액 일괄 사용
+ * 1. 요청을 계좌 번호별로 묶는다.
+ * 2. 계좌마다 잠금을 한 번만 잡고, 그 계좌의 모든 항목을 하나의 트랜잭션으로 처리한다.
+ *    (잔액 전략과 관계없이 잠금을 잡는다. 단건 요청과의 경합은 @Version 으로 걸러진다.)
+ *    분할 잔액 계좌는 잠금 없이 항목마다 단건 사용과 같은 경로로 처리한다.
+ *    actor 전략이면 잠금 없이 항목마다 계좌의 단일 writer(AccountActorEngine)에 명령을 넣고 결과를 기다린다.
+ * 3. 계좌 단위 실패는 그 계좌의 항목에만 영향을 주고 다른 계좌는 계속 처리한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionBatchService {
+    private final TransactionService transactionService;
+    private final LockService lockService;
+    private final SplitBalanceService splitBalanceService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final AccountActorEngine accountActorEngine;
+
+    public List<UseBalanceBatch.Result> useBalances(List<UseBalance.Request> requests) {
+        Map<String, List<Integer>> indexesByAccount = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            indexesByAccount.computeIfAbsent(requests.get(i).getAccountNumber(),
+                    accountNumber -> new ArrayList<>()).add(i);
+        }
+
+        UseBalanceBatch.Result[] results = new UseBalanceBatch.Result[requests.size()];
+        indexesByAccount.forEach((accountNumber, indexes) -> {
+            List<UseBalance.Request> group = indexes.stream().map(requests::get).toList();
+            List<UseBalanceBatch.Result> groupResults = useBalanceGroup(accountNumber, group);
+            for (int i = 0; i < indexes.size(); i++) {
+                results[indexes.get(i)] = groupResults.get(i);
+            }
+        });
+        return Arrays.asList(results);
+    }
+
+    private List<UseBalanceBatch.Result> useBalanceGroup(String accountNumber,
+                                                         List<UseBalance.Request> requests) {
+        if (splitBalanceService.isSplit(accountNumber)) {
+            return useSplitBalances(requests);
+        }
+        if (accountActorEngine.handles(accountNumber)) {
+            return useBalancesOnActor(requests);
+        }
+        try {
+            lockService.lock(accountNumber);
+        } catch (AccountException e) {
+            //단건 요청과 마찬가지로 잠금 실패는 거래를 기록하지 않는다.
+            return failAll(requests, e.getErrorCode());
+        }
+        try {
+            return transactionService.useBalanceGroup(accountNumber, requests);
+        } catch (AccountException e) {
+            log.error("Failed to use balance in batch for accountNumber : {}", accountNumber);
+            if (e.getErrorCode() != ErrorCode.ACCOUNT_NOT_FOUND) {
+                for (UseBalance.Request request : requests) {
+                    saveFailedUseTransaction(request);
+                }
+            }
+            return failAll(requests, e.getErrorCode());
+        } catch (RuntimeException e) {
+            //앞서 커밋된 계좌의 결과를 잃지 않도록 이 계좌만 실패 처리한다.
+            log.error("Unexpected error in batch for accountNumber : {}", accountNumber, e);
+            return failAll(requests, ErrorCode.UNEXPECT_ERROR);
+        } finally {
+            lockService.unlock(accountNumber);
+        }
+    }
+
+    /**
+     * 명령을 모두 넣은 뒤 기다려 엔진이 한 묶음으로 커밋할 수 있게 한다.
+     * 실패 거래는 엔진이 같은 트랜잭션에서 기록한다.
+     */
+    private List<UseBalanceBatch.Result> useBalancesOnActor(List<UseBalance.Request> requests) {
+        List<CompletableFuture<TransactionDto>> futures = requests.stream()
+                .map(request -> accountActorEngine.useBalance(request.getUserId(),
+                        request.getAccountNumber(), request.getAmount()))
+                .toList();
+        List<UseBalanceBatch.Result> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                results.add(UseBalanceBatch.Result.from(AccountActorEngine.await(futures.get(i)), null));
+            } catch (AccountException e) {
+                results.add(UseBalanceBatch.Result.failed(requests.get(i), e.getErrorCode()));
+            }
+        }
+        return results;
+    }
+
+    private List<UseBalanceBatch.Result> useSplitBalances(List<UseBalance.Request> requests) {
+        List<UseBalanceBatch.Result> results = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            try {
+                results.add(UseBalanceBatch.Result.from(transactionService.useBalance(
+                        request.getUserId(), request.getAccountNumber(), request.getAmount()), null));
+            } catch (AccountException e) {
+                saveFailedUseTransaction(request);
+                results.add(UseBalanceBatch.Result.failed(request, e.getErrorCode()));
+            }
+        }
+        return results;
+    }
+
+    private void saveFailedUseTransaction(UseBalance.Request request) {
+        try {
+            failedTransactionRecorder.recordUse(
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+        } catch (AccountException e) {
+            log.error("Failed to save failed transaction : {}", e.getErrorCode());
+        }
+    }
+
+    private static List<UseBalanceBatch.Result> failAll(List<UseBalance.Request> requests,
+                                                        ErrorCode errorCode) {
+        return requests.stream()
+                .map(request -> UseBalanceBatch.Result.failed(request, errorCode))
+                .toList();
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.dto.TransactionIdFormat;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.redisson.codec.TypedJsonJacksonCodec;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 거래 조회 캐시
+ * 거래 행은 한 번 기록되면 바뀌지 않으므로 무효화 없이 캐시한다.
+ * L1 : 노드 내 Caffeine (W-TinyLFU, 건수 제한)
+ * L2 : Redis (노드 간 공유, TTL)
+ */
+@Slf4j
+@Component
+public class TransactionCache {
+    private static final String REMOTE_KEY_PREFIX = "TXN:";
+
+    private final RedissonClient redissonClient;
+    private final Codec codec;
+    private final boolean enabled;
+    private final Duration remoteTtl;
+    private final Cache<Long, TransactionDto> localCache;
+    private final Counter remoteHits;
+    private final Counter remoteMisses;
+
+    public TransactionCache(RedissonClient redissonClient,
+                            ObjectMapper objectMapper,
+                            AccountProperties accountProperties,
+                            MeterRegistry meterRegistry) {
+        AccountProperties.TransactionCache properties =
+                accountProperties.getCache().getTransaction();
+        this.redissonClient = redissonClient;
+        this.codec = new TypedJsonJacksonCodec(TransactionDto.class, objectMapper);
+        this.enabled = properties.isEnabled();
+        this.remoteTtl = properties.getRemoteTtl();
+        this.localCache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "transaction-l1");
+        this.remoteHits = meterRegistry.counter("cache.gets",
+                "cache", "transaction-l2", "result", "hit");
+        this.remoteMisses = meterRegistry.counter("cache.gets",
+                "cache", "transaction-l2", "result", "miss");
+    }
+
+    /**
+     * L1 -> L2 -> loader(DB) 순으로 조회한다. loader 의 예외는 캐시하지 않고 그대로 던진다.
+     */
+    public TransactionDto get(Long transactionId, Function<Long, TransactionDto> loader) {
+        if (!enabled) {
+            return loader.apply(transactionId);
+        }
+        return localCache.get(transactionId, id -> {
+            TransactionDto remote = getRemote(id);
+            if (remote != null) {
+                remoteHits.increment();
+                return remote;
+            }
+            remoteMisses.increment();
+            TransactionDto loaded = loader.apply(id);
+            putRemote(id, loaded);
+            return loaded;
+        });
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤에 캐시에 넣는다. (롤백된 거래가 캐시에 남지 않도록)
+     */
+    public void putAfterCommit(Long transactionId, TransactionDto transactionDto) {
+        if (!enabled) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(transactionId, transactionDto);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(transactionId, transactionDto);
+            }
+        });
+    }
+
+    private void put(Long transactionId, TransactionDto transactionDto) {
+        localCache.put(transactionId, transactionDto);
+        putRemote(transactionId, transactionDto);
+    }
+
+    private TransactionDto getRemote(Long transactionId) {
+        try {
+            return bucket(transactionId).get();
+        } catch (Exception e) {
+            log.error("Failed to read transaction cache from Redis", e);
+            return null;
+        }
+    }
+
+    private void putRemote(Long transactionId, TransactionDto transactionDto) {
+        try {
+            bucket(transactionId).setAsync(transactionDto, remoteTtl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.error("Failed to write transaction cache to Redis", e);
+        }
+    }
+
+    private RBucket<TransactionDto> bucket(Long transactionId) {
+        return redissonClient.getBucket(
+                REMOTE_KEY_PREFIX + TransactionIdFormat.format(transactionId), codec);
+    }
+}
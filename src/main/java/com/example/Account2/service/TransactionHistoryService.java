@@ -0,0 +1,104 @@
+package com.example.Account2.service;
+
+import com.example.Account2.domain.Account;
+import com.example.Account2.dto.TransactionHistory;
+import com.example.Account2.dto.TransactionHistoryRow;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.TransactionRepository;
+import com.example.Account2.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * 계좌 거래 내역 (keyset 페이지, 스트리밍 JSON)
+ * 1. prepare : 응답을 쓰기 전에 계좌/커서/크기를 검증한다. (스트리밍을 시작한 뒤에는 오류 응답을 보낼 수 없다.)
+ * 2. write : size + 1 건을 조회해 size 건을 바로 응답에 쓰고, 남는 한 건이 있으면 마지막 거래로 nextCursor 를 만든다.
+ * 커서 다음 행부터 인덱스를 이어 읽으므로 뒤쪽 페이지도 첫 페이지와 비용이 같다.
+ */
+@Service
+public class TransactionHistoryService {
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTemplate;
+
+    public TransactionHistoryService(AccountRepository accountRepository,
+                                     TransactionRepository transactionRepository,
+                                     ObjectMapper objectMapper,
+                                     PlatformTransactionManager transactionManager) {
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+    }
+
+    public TransactionHistory.Query prepare(String accountNumber, String cursor, int size) {
+        if (size < 1 || size > TransactionHistory.MAX_SIZE) {
+            throw new AccountException(ErrorCode.INVALID_REQUEST);
+        }
+        TransactionHistory.Cursor decoded = StringUtils.hasText(cursor)
+                ? TransactionHistory.Cursor.decode(cursor) : null;
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        return new TransactionHistory.Query(account.getId(), accountNumber, decoded, size);
+    }
+
+    public void write(TransactionHistory.Query query, OutputStream outputStream) {
+        //Stream 은 트랜잭션(커넥션)이 열려 있는 동안만 읽을 수 있다.
+        readOnlyTemplate.executeWithoutResult(status -> {
+            try (Stream<TransactionHistoryRow> rows = findRows(query);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+                generator.writeStartObject();
+                generator.writeStringField("accountNumber", query.accountNumber());
+                generator.writeArrayFieldStart("items");
+                TransactionHistoryRow last = null;
+                boolean hasNext = false;
+                int written = 0;
+                for (Iterator<TransactionHistoryRow> iterator = rows.iterator(); iterator.hasNext(); ) {
+                    TransactionHistoryRow row = iterator.next();
+                    if (written == query.size()) {
+                        hasNext = true;
+                        break;
+                    }
+                    generator.writeObject(TransactionHistory.Item.from(row));
+                    last = row;
+                    written++;
+                }
+                generator.writeEndArray();
+                generator.writeFieldName("nextCursor");
+                if (hasNext) {
+                    generator.writeString(TransactionHistory.Cursor.of(last).encode());
+                } else {
+                    generator.writeNull();
+                }
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private Stream<TransactionHistoryRow> findRows(TransactionHistory.Query query) {
+        PageRequest limit = PageRequest.of(0, query.size() + 1);
+        TransactionHistory.Cursor cursor = query.cursor();
+        if (cursor == null) {
+            return transactionRepository.streamHistory(query.accountId(), limit);
+        }
+        return transactionRepository.streamHistoryBefore(query.accountId(),
+                cursor.transactedAt(), cursor.id(), limit);
+    }
+}
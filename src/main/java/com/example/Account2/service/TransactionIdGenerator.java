@@ -0,0 +1,43 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 시간 순으로 증가하는 64bit 거래 번호 (Snowflake)
+ * [41bit 밀리초][10bit 노드][12bit 순번]
+ * 같은 밀리초에 순번이 넘치거나 시계가 뒤로 가면 다음 밀리초를 미리 사용해 단조 증가를 유지한다.
+ */
+@Component
+public class TransactionIdGenerator {
+    static final long EPOCH = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+
+    private final long nodeBits;
+    /**
+     * [밀리초][순번] 마지막으로 발급한 상태
+     */
+    private final AtomicLong lastState = new AtomicLong();
+
+    public TransactionIdGenerator(AccountProperties accountProperties) {
+        long nodeId = accountProperties.getTransactionId().getNodeId();
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalStateException("account.transaction-id.node-id must be 0 ~ " + MAX_NODE_ID);
+        }
+        this.nodeBits = nodeId << SEQUENCE_BITS;
+    }
+
+    public long nextId() {
+        long now = (System.currentTimeMillis() - EPOCH) << SEQUENCE_BITS;
+        long state = lastState.accumulateAndGet(now,
+                (last, current) -> current > last ? current : last + 1);
+        long millis = state >>> SEQUENCE_BITS;
+        long sequence = state & ((1L << SEQUENCE_BITS) - 1);
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | sequence;
+    }
+}
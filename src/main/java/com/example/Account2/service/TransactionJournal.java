@@ -0,0 +1,272 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.domain.Transaction;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * 거래 저널 (account.journal.enabled)
+ * 커밋된 거래를 응답 전에 고정 크기 메모리 매핑 세그먼트 파일에 순차 기록한다.
+ * 1. 세그먼트 : 헤더(magic, version) + 고정 길이 레코드(JournalRecord), 공간이 모자라면 다음 세그먼트로 넘어간다.
+ * 2. 재시작 시 마지막 세그먼트의 CRC 가 맞는 마지막 레코드 뒤부터 이어 쓴다. (쓰다 만 레코드는 덮어쓴다.)
+ * 3. force=true 면 레코드마다 디스크에 내린 뒤 반환한다.
+ * 롤백된 거래가 남지 않도록 커밋 후에 기록하므로, DB 가 원본이고 저널은 순차 I/O 감사 로그/복구용이다.
+ * 커밋 후 기록이 실패하면 그 거래는 저널에서 빠진다. 이때 저널 디렉터리에 누락 표시 파일(journal.gaps)에
+ * 거래 ID 를 남기고 unhealthy 로 바꾼다. 재생은 기록 실패가 한 번도 없었을 때만 믿을 수 있으므로,
+ * 누락 표시 파일이 있으면 JournalReplayService 는 재생을 거부한다. (DB 와 대조한 뒤 운영자가 지운다.)
+ */
+@Slf4j
+@Component
+public class TransactionJournal {
+    static final long MAGIC = 0x4143_4354_4A52_4E4CL; //"ACCTJRNL"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    private static final String SEGMENT_PREFIX = "journal-";
+    private static final String SEGMENT_SUFFIX = ".seg";
+    static final String GAPS_FILE = "journal.gaps";
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final boolean force;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Counter appended;
+    private final Counter failed;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private long segmentIndex;
+    private volatile boolean healthy = true;
+
+    public TransactionJournal(AccountProperties accountProperties, MeterRegistry meterRegistry) {
+        AccountProperties.Journal journal = accountProperties.getJournal();
+        this.enabled = journal.isEnabled();
+        this.directory = Paths.get(journal.getDirectory());
+        this.segmentSize = Math.toIntExact(journal.getSegmentSize().toBytes());
+        if (segmentSize < HEADER_SIZE + JournalRecord.RECORD_SIZE) {
+            throw new IllegalArgumentException("account.journal.segment-size is too small : " + segmentSize);
+        }
+        this.force = journal.isForce();
+        this.appended = meterRegistry.counter("account.journal.appended");
+        this.failed = meterRegistry.counter("account.journal.failed");
+        if (enabled) {
+            open();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 기록 실패로 빠진 거래가 없으면 true
+     */
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    /**
+     * 기록 실패로 빠진 거래가 있는 저널인지 (누락 표시 파일 존재 여부)
+     */
+    public static boolean hasGaps(Path directory) {
+        return Files.exists(directory.resolve(GAPS_FILE));
+    }
+
+    /**
+     * 현재 트랜잭션이 커밋된 뒤(응답 전)에 기록한다.
+     */
+    public void appendAfterCommit(Transaction transaction) {
+        if (!enabled) {
+            return;
+        }
+        JournalRecord record = JournalRecord.from(transaction);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendQuietly(record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                appendQuietly(record);
+            }
+        });
+    }
+
+    public void append(JournalRecord record) {
+        lock.lock();
+        try {
+            if (buffer.remaining() < JournalRecord.RECORD_SIZE) {
+                roll();
+            }
+            int position = buffer.position();
+            record.writeTo(buffer);
+            if (force) {
+                buffer.force(position, JournalRecord.RECORD_SIZE);
+            }
+            appended.increment();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        lock.lock();
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            log.error("Failed to close journal segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 세그먼트 순서대로 모든 유효 레코드를 읽는다.
+     * 마지막 세그먼트의 쓰다 만 꼬리는 무시하고, 그 앞 세그먼트의 손상은 IllegalStateException 으로 알린다.
+     */
+    public static void read(Path directory, Consumer<JournalRecord> consumer) {
+        List<Path> segments = segments(directory);
+        for (int i = 0; i < segments.size(); i++) {
+            boolean last = i == segments.size() - 1;
+            try (FileChannel channel = FileChannel.open(segments.get(i), StandardOpenOption.READ)) {
+                ByteBuffer segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                checkHeader(segments.get(i), segment);
+                JournalRecord record;
+                while ((record = JournalRecord.readFrom(segment)) != null) {
+                    consumer.accept(record);
+                }
+                if (!last && JournalRecord.isWritten(segment)) {
+                    throw new IllegalStateException("Corrupted journal segment : "
+                            + segments.get(i) + " at " + segment.position());
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    private void appendQuietly(JournalRecord record) {
+        try {
+            append(record);
+        } catch (RuntimeException e) {
+            //DB 에는 이미 커밋되었으므로 요청은 실패시키지 않고, 저널에 빈 곳이 생겼음을 남긴다.
+            failed.increment();
+            healthy = false;
+            log.error("Failed to append transaction journal, transactionId : {}",
+                    record.transactionId(), e);
+            markGap(record);
+        }
+    }
+
+    private void markGap(JournalRecord record) {
+        try {
+            Files.writeString(directory.resolve(GAPS_FILE), record.transactionId() + System.lineSeparator(),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to mark journal gap, transactionId : {}", record.transactionId(), e);
+        }
+    }
+
+    private void open() {
+        try {
+            Files.createDirectories(directory);
+            if (hasGaps(directory)) {
+                healthy = false;
+                log.warn("Journal has gaps, replay is refused until {} is cleared", directory.resolve(GAPS_FILE));
+            }
+            List<Path> segments = segments(directory);
+            if (segments.isEmpty()) {
+                createSegment(0);
+                return;
+            }
+            Path last = segments.get(segments.size() - 1);
+            segmentIndex = segmentIndex(last);
+            channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            checkHeader(last, buffer);
+            while (JournalRecord.readFrom(buffer) != null) {
+                //마지막 유효 레코드 뒤로 이동
+            }
+            log.info("Journal opened : {} at {}", last, buffer.position());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void roll() {
+        try {
+            buffer.force();
+            channel.close();
+            createSegment(segmentIndex + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void createSegment(long index) throws IOException {
+        Path path = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, index, SEGMENT_SUFFIX));
+        segmentIndex = index;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        buffer.putLong(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.position(HEADER_SIZE);
+        buffer.force(0, HEADER_SIZE);
+    }
+
+    private static void checkHeader(Path path, ByteBuffer segment) {
+        if (segment.limit() < HEADER_SIZE || segment.getLong(0) != MAGIC
+                || segment.getInt(8) != VERSION) {
+            throw new IllegalStateException("Not a journal segment : " + path);
+        }
+        segment.position(HEADER_SIZE);
+    }
+
+    private static List<Path> segments(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> {
+                        String name = path.getFileName().toString();
+                        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+                    })
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long segmentIndex(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(),
+                name.length() - SEGMENT_SUFFIX.length()));
+    }
+}
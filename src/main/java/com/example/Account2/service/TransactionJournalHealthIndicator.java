@@ -0,0 +1,26 @@
+package com.example.Account2.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * 저널 기록이 실패해 빠진 거래가 생기면 DOWN 으로 알린다. (/actuator/health 의 transactionJournal)
+ */
+@Component
+@RequiredArgsConstructor
+public class TransactionJournalHealthIndicator implements HealthIndicator {
+    private final TransactionJournal transactionJournal;
+
+    @Override
+    public Health health() {
+        if (!transactionJournal.isEnabled()) {
+            return Health.unknown().withDetail("enabled", false).build();
+        }
+        if (!transactionJournal.isHealthy()) {
+            return Health.down().withDetail("reason", "journal has gaps, replay is not trustworthy").build();
+        }
+        return Health.up().build();
+    }
+}
@@ -1,25 +1,40 @@
 package com.example.Account2.service;
 
+import com.example.Account2.aop.GroupCommit;
+import com.example.Account2.aop.OptimisticRetry;
+import com.example.Account2.config.AccountProperties;
 import com.example.Account2.domain.Account;
 import com.example.Account2.domain.AccountUser;
 import com.example.Account2.domain.Transaction;
 import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.dto.TransactionIdFormat;
+import com.example.Account2.dto.UseBalance;
+import com.example.Account2.dto.UseBalanceBatch;
 import com.example.Account2.exception.AccountException;
 import com.example.Account2.repository.AccountRepository;
 import com.example.Account2.repository.AccountUserRepository;
 import com.example.Account2.repository.TransactionRepository;
 import com.example.Account2.type.AccountStatus;
+import com.example.Account2.type.BalanceStrategy;
 import com.example.Account2.type.ErrorCode;
 import com.example.Account2.type.TransactionResultType;
 import com.example.Account2.type.TransactionType;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -28,10 +43,26 @@ public class TransactionService {
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final AccountProperties accountProperties;
+    private final TransactionIdGenerator transactionIdGenerator;
+    private final TransactionCache transactionCache;
+    private final AccountListCache accountListCache;
+    private final SplitBalanceService splitBalanceService;
+    private final TransactionJournal transactionJournal;
+    private final LockFencing lockFencing;
 
+    @Timed(value = "account.transaction", extraTags = {"operation", "use"}, histogram = true)
     @Transactional
+    @OptimisticRetry
+    @GroupCommit(TransactionType.USE)
     public TransactionDto useBalance(Long userId, String accountNumber,
                                      Long amount){
+         if (splitBalanceService.isSplit(accountNumber)) {
+             return useSplitBalance(userId, accountNumber, amount);
+         }
+         if (isAtomicSql()) {
+             return useBalanceAtomically(userId, accountNumber, amount);
+         }
          AccountUser user = accountUserRepository.findById(userId)
                 .orElseThrow(()->new AccountException(ErrorCode.USER_NOT_FOUND));
 
@@ -40,6 +71,7 @@ public class TransactionService {
 
          validateUseBalance(user, account, amount);
 
+         lockFencing.fenceBeforeCommit(account);
          account.useBalance(amount);
 
          return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.USE, TransactionResultType.S, account, amount));
@@ -47,16 +79,59 @@ public class TransactionService {
 
     }
 
+    /**
+     * 조건부 UPDATE 로 차감, 영향받은 행이 없을 때만 원인을 조회한다.
+     */
+    private TransactionDto useBalanceAtomically(Long userId, String accountNumber,
+                                                Long amount) {
+        if (accountRepository.useBalance(userId, accountNumber, amount) == 0) {
+            AccountUser user = accountUserRepository.findById(userId)
+                    .orElseThrow(()->new AccountException(ErrorCode.USER_NOT_FOUND));
+            Account account = accountRepository.findByAccountNumber(accountNumber)
+                    .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+            validateUseBalance(user, account, amount);
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.USE, TransactionResultType.S, account, amount));
+    }
+
+    /**
+     * 분할 잔액 계좌 : 슬롯 → 본 잔액 순으로 차감, 거래의 잔액 스냅샷은 합계 잔액
+     */
+    private TransactionDto useSplitBalance(Long userId, String accountNumber, Long amount) {
+        AccountUser user = accountUserRepository.findById(userId)
+                .orElseThrow(()->new AccountException(ErrorCode.USER_NOT_FOUND));
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        validateUseAccount(user, account);
+        if (!splitBalanceService.debit(account, userId, amount)) {
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+
+        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.USE, TransactionResultType.S,
+                account, amount, splitBalanceService.totalBalance(account.getId())));
+    }
+
     private void validateUseBalance(AccountUser user, Account account, Long amount) {
+        validateUseAccount(user, account);
+        if(account.getBalance() < amount){
+            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    private void validateUseAccount(AccountUser user, Account account) {
         if(!Objects.equals(user.getId(), account.getAccountUser().getId())){
             throw new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCHED);
         }
         if(account.getAccountStatus() != AccountStatus.IN_USE){
             throw new AccountException(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED);
         }
-        if(account.getBalance() < amount){
-            throw new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE);
-        }
     }
 
     @Transactional
@@ -67,42 +142,344 @@ public class TransactionService {
         saveAndGetTransaction(TransactionType.USE,TransactionResultType.F, account, amount);
     }
 
+    /**
+     * 한 계좌에 대한 여러 건의 잔액 사용을 하나의 트랜잭션으로 처리한다. (호출자가 계좌 잠금을 잡고 있어야 한다.)
+     * 결과는 requests 와 같은 순서이다.
+     */
+    @Transactional
+    @OptimisticRetry
+    public List<UseBalanceBatch.Result> useBalanceGroup(String accountNumber,
+                                                        List<UseBalance.Request> requests) {
+        if (isAtomicSql()) {
+            return useBalanceGroupAtomically(requests);
+        }
+        List<BalanceCommand.Result> results = applyCommands(requests.stream()
+                .map(request -> BalanceCommand.use(request.getUserId(),
+                        request.getAccountNumber(), request.getAmount()))
+                .toList(), true);
+
+        List<UseBalanceBatch.Result> batchResults = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            BalanceCommand.Result result = results.get(i);
+            batchResults.add(result.getTransactionDto() == null
+                    ? UseBalanceBatch.Result.failed(requests.get(i), result.getErrorCode())
+                    : UseBalanceBatch.Result.from(result.getTransactionDto(), result.getErrorCode()));
+        }
+        return batchResults;
+    }
+
+    /**
+     * atomic-sql : 단건 요청과 같은 조건부 UPDATE 로 한 건씩 차감한다.
+     * (엔티티 @Version 갱신이 잠금 없는 단건 UPDATE 와 충돌해 묶음 전체가 실패하지 않도록)
+     */
+    private List<UseBalanceBatch.Result> useBalanceGroupAtomically(List<UseBalance.Request> requests) {
+        List<UseBalanceBatch.Result> batchResults = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            try {
+                batchResults.add(UseBalanceBatch.Result.from(useBalanceAtomically(request.getUserId(),
+                        request.getAccountNumber(), request.getAmount()), null));
+            } catch (AccountException e) {
+                Optional<Account> account = accountRepository.findByAccountNumber(request.getAccountNumber());
+                batchResults.add(account.isEmpty()
+                        ? UseBalanceBatch.Result.failed(request, e.getErrorCode())
+                        : UseBalanceBatch.Result.from(TransactionDto.fromEntity(saveAndGetTransaction(
+                                TransactionType.USE, TransactionResultType.F, account.get(),
+                                request.getAmount())), e.getErrorCode()));
+            }
+        }
+        return batchResults;
+    }
+
+    /**
+     * 단일 writer(AccountActorEngine)가 모은 명령을 하나의 트랜잭션으로 처리한다. (잠금 없음)
+     * 결과는 commands 와 같은 순서이다.
+     */
+    @Transactional
+    public List<BalanceCommand.Result> applyBalanceCommands(List<BalanceCommand> commands) {
+        return applyCommands(commands, true);
+    }
+
+    /**
+     * 여러 요청 스레드의 명령을 하나의 트랜잭션으로 처리한다. (GroupCommitter)
+     * 실패한 명령은 기록하지 않는다. 호출자(컨트롤러)가 단건 요청과 같은 경로로 실패 거래를 기록한다.
+     */
+    @Transactional
+    public List<BalanceCommand.Result> applyGroupCommit(List<BalanceCommand> commands) {
+        return applyCommands(commands, false);
+    }
+
+    /**
+     * 명령마다 검증 후 엔티티를 변경하고, 검증에 실패한 명령은 실패 거래(F)로만 기록한다. (recordFailures)
+     * (검증 실패 시 엔티티를 바꾸지 않으므로 한 명령의 실패가 다른 명령에 영향을 주지 않는다.)
+     * 계좌/사용자/취소 대상 거래는 처음 한 번만 조회하고, 거래 행은 saveAll 로 한 번에 저장해
+     * 중간 flush 없이 JDBC 배치 insert 로 나가게 한다.
+     * fencing token 은 명령에 실린 값(그룹 커밋), 없으면 현재 스레드가 쥔 잠금의 값(일괄 사용)으로 확인한다.
+     */
+    private List<BalanceCommand.Result> applyCommands(List<BalanceCommand> commands,
+                                                      boolean recordFailures) {
+        CancelTargets cancelTargets = findCancelTargets(commands);
+        Map<String, Optional<Account>> accounts = new HashMap<>();
+        Map<Long, Optional<AccountUser>> users = new HashMap<>();
+
+        List<Transaction> transactions = new ArrayList<>(commands.size());
+        List<ErrorCode> errorCodes = new ArrayList<>(commands.size());
+        Set<Long> changedUserIds = new HashSet<>();
+        Map<String, Long> lockTokens = new HashMap<>();
+        for (BalanceCommand command : commands) {
+            Optional<Account> foundAccount = accounts.computeIfAbsent(
+                    command.getAccountNumber(), accountRepository::findByAccountNumber);
+            if (foundAccount.isEmpty()) {
+                transactions.add(null);
+                errorCodes.add(ErrorCode.ACCOUNT_NOT_FOUND);
+                continue;
+            }
+            Account account = foundAccount.get();
+            ErrorCode errorCode = null;
+            try {
+                checkLockToken(account, command.getLockToken() != null ? command.getLockToken()
+                        : lockFencing.currentToken(account.getAccountNumber()), lockTokens);
+                if (command.getTransactionType() == TransactionType.USE) {
+                    AccountUser user = users.computeIfAbsent(command.getUserId(),
+                                    accountUserRepository::findById)
+                            .orElseThrow(()->new AccountException(ErrorCode.USER_NOT_FOUND));
+                    validateUseBalance(user, account, command.getAmount());
+                    account.useBalance(command.getAmount());
+                } else {
+                    Transaction transaction = cancelTargets.get(command.getTransactionId());
+                    if (transaction == null) {
+                        throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+                    }
+                    validateCancelBalance(transaction, account.getAccountNumber(), command.getAmount());
+                    account.cancelBalance(command.getAmount());
+                }
+                changedUserIds.add(account.getAccountUser().getId());
+            } catch (AccountException e) {
+                errorCode = e.getErrorCode();
+            }
+            transactions.add(errorCode != null && !recordFailures ? null
+                    : newTransaction(command.getTransactionType(),
+                            errorCode == null ? TransactionResultType.S : TransactionResultType.F,
+                            account, command.getAmount()));
+            errorCodes.add(errorCode);
+        }
+
+        lockTokens.forEach((accountNumber, lockToken) -> lockFencing.fenceBeforeCommit(
+                accounts.get(accountNumber).orElseThrow(), lockToken));
+
+        List<Transaction> saved = transactionRepository.saveAll(
+                transactions.stream().filter(Objects::nonNull).toList());
+        List<BalanceCommand.Result> results = new ArrayList<>(commands.size());
+        int savedIndex = 0;
+        for (int i = 0; i < commands.size(); i++) {
+            TransactionDto transactionDto = null;
+            if (transactions.get(i) != null) {
+                Transaction transaction = saved.get(savedIndex++);
+                transactionDto = TransactionDto.fromEntity(transaction);
+                transactionCache.putAfterCommit(transaction.getTransactionId(), transactionDto);
+                transactionJournal.appendAfterCommit(transaction);
+            }
+            results.add(new BalanceCommand.Result(transactionDto, errorCodes.get(i)));
+        }
+        changedUserIds.forEach(accountListCache::evictAfterCommit);
+        return results;
+    }
+
+    /**
+     * 잠금이 만료된 이전 보유자의 명령(계좌 행이나 같은 묶음의 토큰보다 작은 토큰)은 적용하지 않는다.
+     * 통과한 토큰 중 가장 큰 값을 계좌별로 모아 커밋 직전에 fencing 한다.
+     */
+    private static void checkLockToken(Account account, Long lockToken, Map<String, Long> lockTokens) {
+        if (lockToken == null) {
+            return;
+        }
+        Long lastToken = lockTokens.getOrDefault(account.getAccountNumber(), account.getLockToken());
+        if (lastToken != null && lockToken < lastToken) {
+            throw new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK);
+        }
+        lockTokens.put(account.getAccountNumber(), lockToken);
+    }
+
+    private CancelTargets findCancelTargets(List<BalanceCommand> commands) {
+        Set<Long> transactionIds = new HashSet<>();
+        Set<String> legacyTransactionIds = new HashSet<>();
+        for (BalanceCommand command : commands) {
+            if (command.getTransactionType() != TransactionType.CANCEL
+                    || command.getTransactionId() == null) {
+                continue;
+            }
+            Long transactionId = parseTransactionIdOrNull(command.getTransactionId());
+            if (transactionId != null) {
+                transactionIds.add(transactionId);
+            } else {
+                legacyTransactionIds.add(command.getTransactionId());
+            }
+        }
+        Map<Long, Transaction> byTransactionId = new HashMap<>();
+        if (!transactionIds.isEmpty()) {
+            for (Transaction transaction : transactionRepository.findAllByTransactionIdIn(transactionIds)) {
+                byTransactionId.put(transaction.getTransactionId(), transaction);
+            }
+        }
+        Map<String, Transaction> byLegacyTransactionId = new HashMap<>();
+        if (!legacyTransactionIds.isEmpty()) {
+            for (Transaction transaction :
+                    transactionRepository.findAllByLegacyTransactionIdIn(legacyTransactionIds)) {
+                byLegacyTransactionId.put(transaction.getLegacyTransactionId(), transaction);
+            }
+        }
+        return new CancelTargets(byTransactionId, byLegacyTransactionId);
+    }
+
+    /**
+     * 취소 대상 거래 (새 형식 번호와 V4 이전 UUID 번호)
+     */
+    private record CancelTargets(Map<Long, Transaction> byTransactionId,
+                                 Map<String, Transaction> byLegacyTransactionId) {
+        Transaction get(String transactionId) {
+            Long parsed = parseTransactionIdOrNull(transactionId);
+            return parsed != null ? byTransactionId.get(parsed)
+                    : byLegacyTransactionId.get(transactionId);
+        }
+    }
+
+    private Transaction newTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long amount) {
+        return newTransaction(transactionType, transactionResultType, account, amount,
+                account.getBalance());
+    }
+
+    private Transaction newTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long amount,
+            long balanceSnapshot) {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSanpshot(balanceSnapshot)
+                .transactionId(transactionIdGenerator.nextId())
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+
     private Transaction saveAndGetTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType,
             Account account,
             Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSanpshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        return saveAndGetTransaction(transactionType, transactionResultType, account, amount,
+                account.getBalance());
     }
 
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long amount,
+            long balanceSnapshot) {
+        Transaction transaction = transactionRepository.save(
+                newTransaction(transactionType, transactionResultType, account, amount, balanceSnapshot));
+        transactionCache.putAfterCommit(transaction.getTransactionId(),
+                TransactionDto.fromEntity(transaction));
+        transactionJournal.appendAfterCommit(transaction);
+        //성공한 거래만 잔액을 바꾼다.
+        if (transactionResultType == TransactionResultType.S) {
+            accountListCache.evictAfterCommit(account.getAccountUser().getId());
+        }
+        return transaction;
+    }
+
+    @Timed(value = "account.transaction", extraTags = {"operation", "cancel"}, histogram = true)
     @Transactional
+    @OptimisticRetry
+    @GroupCommit(TransactionType.CANCEL)
     public TransactionDto cancelBalance(String transactionId,
                                         String accountNumber,
                                         Long amount) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+        if (splitBalanceService.isSplit(accountNumber)) {
+            return cancelSplitBalance(transactionId, accountNumber, amount);
+        }
+        if (isAtomicSql()) {
+            return cancelBalanceAtomically(transactionId, accountNumber, amount);
+        }
+        Transaction transaction = findTransaction(transactionId)
                 .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
         Account account = accountRepository.findByAccountNumber(accountNumber)
                 .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
 
-        validateCancelBalance(transaction, account, amount);
+        validateCancelBalance(transaction, account.getAccountNumber(), amount);
 
+        lockFencing.fenceBeforeCommit(account);
         account.cancelBalance(amount);
 
         return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S, account, amount));
     }
 
-    private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
-        if(!Objects.equals(account.getAccountNumber(), transaction.getAccount().getAccountNumber())){
+    private TransactionDto cancelBalanceAtomically(String transactionId,
+                                                   String accountNumber,
+                                                   Long amount) {
+        Transaction transaction = findTransaction(transactionId)
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+
+        validateCancelBalance(transaction, accountNumber, amount);
+
+        if (accountRepository.cancelBalance(accountNumber, amount) == 0) {
+            throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S, account, amount));
+    }
+
+    /**
+     * 분할 잔액 계좌 : 임의의 슬롯에 입금
+     */
+    private TransactionDto cancelSplitBalance(String transactionId,
+                                              String accountNumber,
+                                              Long amount) {
+        Transaction transaction = findTransaction(transactionId)
+                .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(()->new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+
+        validateCancelBalance(transaction, account.getAccountNumber(), amount);
+
+        splitBalanceService.credit(account, amount);
+
+        return TransactionDto.fromEntity(saveAndGetTransaction(TransactionType.CANCEL, TransactionResultType.S,
+                account, amount, splitBalanceService.totalBalance(account.getId())));
+    }
+
+    /**
+     * 새 형식 번호가 아니면 V4 이전에 발급된 UUID 번호(legacy_transaction_id)로 찾는다.
+     */
+    private Optional<Transaction> findTransaction(String transactionId) {
+        Long parsed = parseTransactionIdOrNull(transactionId);
+        return parsed != null ? transactionRepository.findByTransactionId(parsed)
+                : transactionRepository.findByLegacyTransactionId(transactionId);
+    }
+
+    private static Long parseTransactionIdOrNull(String transactionId) {
+        try {
+            return TransactionIdFormat.parse(transactionId);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private boolean isAtomicSql() {
+        return accountProperties.getBalance().getStrategy() == BalanceStrategy.ATOMIC_SQL;
+    }
+
+    private void validateCancelBalance(Transaction transaction, String accountNumber, Long amount) {
+        if(!Objects.equals(accountNumber, transaction.getAccount().getAccountNumber())){
             throw new AccountException(ErrorCode.TRANSACTION_ACCOUNT_UNMATCHED);
         }
         if(!Objects.equals(amount, transaction.getAmount())){
@@ -120,9 +497,49 @@ public class TransactionService {
         saveAndGetTransaction(TransactionType.CANCEL,TransactionResultType.F, account, amount);
     }
 
+    /**
+     * 모인 실패 거래를 한 트랜잭션으로 저장한다. (FailedTransactionRecorder)
+     * 계좌는 한 번에 조회하고, 없는 계좌의 실패 거래는 건너뛴다. (단건 기록과 마찬가지로 남길 계좌가 없다.)
+     * @return 저장한 건수
+     */
+    @Transactional
+    public int saveFailedTransactions(List<FailedTransaction> failedTransactions) {
+        Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountRepository.findAllByAccountNumberIn(failedTransactions.stream()
+                .map(FailedTransaction::accountNumber)
+                .collect(Collectors.toSet()))) {
+            accounts.put(account.getAccountNumber(), account);
+        }
+
+        List<Transaction> transactions = new ArrayList<>(failedTransactions.size());
+        for (FailedTransaction failedTransaction : failedTransactions) {
+            Account account = accounts.get(failedTransaction.accountNumber());
+            if (account == null) {
+                continue;
+            }
+            Transaction transaction = newTransaction(failedTransaction.transactionType(),
+                    TransactionResultType.F, account, failedTransaction.amount());
+            transaction.setTransactedAt(failedTransaction.failedAt());
+            transactions.add(transaction);
+        }
+        for (Transaction transaction : transactionRepository.saveAll(transactions)) {
+            transactionCache.putAfterCommit(transaction.getTransactionId(),
+                    TransactionDto.fromEntity(transaction));
+            transactionJournal.appendAfterCommit(transaction);
+        }
+        return transactions.size();
+    }
+
+    @Timed(value = "account.transaction", extraTags = {"operation", "query"}, histogram = true)
     public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(
-                transactionRepository.findByTransactionId(transactionId)
-                    .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
+        Long parsed = parseTransactionIdOrNull(transactionId);
+        if (parsed == null) {
+            // V4 이전 UUID 번호는 캐시 키(새 번호)와 달라 바로 조회한다.
+            return transactionRepository.findDtoByLegacyTransactionId(transactionId)
+                    .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        }
+        return transactionCache.get(parsed, id ->
+                transactionRepository.findDtoByTransactionId(id)
+                        .orElseThrow(() -> new AccountException(ErrorCode.TRANSACTION_NOT_FOUND)));
     }
 }
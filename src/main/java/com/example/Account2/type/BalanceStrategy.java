@@ -0,0 +1,23 @@
+package com.example.Account2.type;
+
+/**
+ * 잔액 변경 동시성 제어 방식
+ */
+public enum BalanceStrategy {
+    /**
+     * Redis 분산 잠금 + 엔티티 변경 감지
+     */
+    REDIS_LOCK,
+    /**
+     * 조건부 UPDATE 한 문장으로 잔액 변경 (잠금 없음)
+     */
+    ATOMIC_SQL,
+    /**
+     * 잠금 없이 @Version 충돌 시 재시도
+     */
+    OPTIMISTIC,
+    /**
+     * 계좌 번호로 나눈 단일 스레드 샤드가 순서대로 처리 (잠금 없음, 그룹 커밋)
+     */
+    ACTOR
+}
@@ -0,0 +1,7 @@
+package com.example.Account2.type;
+
+public enum DelayDistribution {
+    FIXED,
+    UNIFORM,
+    EXPONENTIAL
+}
@@ -20,7 +20,9 @@ public enum ErrorCode {
     TOO_OLD_ORDER_TO_CANCEL("1년이 지난 거래는 취소가 불가능 합니다."),
     INVALID_REQUEST("잘못된 요청입니다."),
     UNEXPECT_ERROR("처리되지 않은 에러가 발생했습니다."),
-    ACCOUNT_TRANSACTION_LOCK("해당 계좌는 현재 사용중입니다.");
+    ACCOUNT_TRANSACTION_LOCK("해당 계좌는 현재 사용중입니다."),
+    IDEMPOTENCY_KEY_REUSED("같은 Idempotency-Key 로 다른 요청이 들어왔습니다."),
+    IDEMPOTENT_REQUEST_IN_PROGRESS("같은 Idempotency-Key 의 요청이 처리 중입니다.");
 
     private final String description;
 
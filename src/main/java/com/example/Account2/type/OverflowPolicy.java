@@ -0,0 +1,15 @@
+package com.example.Account2.type;
+
+/**
+ * 실패 거래 대기열이 가득 찼을 때의 처리
+ */
+public enum OverflowPolicy {
+    /**
+     * 버리고 건수만 센다.
+     */
+    DROP,
+    /**
+     * 로컬 파일에 덧붙이고, 대기열이 비었을 때 다시 기록한다.
+     */
+    SPILL
+}
@@ -4,3 +4,5 @@ insert into account_user(id, name, created_at, updated_at)
 values (2, 'Lupi', now(), now());
 insert into account_user(id, name, created_at, updated_at)
 values (3, 'Eddi', now(), now());
+
+create sequence if not exists account_number_seq start with 1000000000 increment by 1000;
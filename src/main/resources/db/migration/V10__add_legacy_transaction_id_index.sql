@@ -0,0 +1,3 @@
+-- V4 이전 UUID 거래 번호로 조회/취소 (legacy_transaction_id 는 이전 거래에만 채워져 있다.)
+create index if not exists ix_transaction_legacy_transaction_id
+    on transaction (legacy_transaction_id);
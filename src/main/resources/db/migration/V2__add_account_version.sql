@@ -0,0 +1,2 @@
+-- optimistic 전략용 버전 컬럼
+alter table account add column if not exists version bigint default 0 not null;
@@ -0,0 +1,7 @@
+-- findByAccountNumber / findByTransactionId 조회용 unique index
+-- 중복 데이터가 있으면 실패하므로 먼저 정리해야 한다.
+alter table account alter column account_number set not null;
+create unique index if not exists ux_account_account_number on account (account_number);
+
+alter table transaction alter column transaction_id set not null;
+create unique index if not exists ux_transaction_transaction_id on transaction (transaction_id);
@@ -0,0 +1,11 @@
+-- 거래 번호를 32자 UUID 문자열에서 시간 순 BIGINT 로 변경
+-- 기존 UUID 는 변환할 수 없으므로 legacy_transaction_id 로 보존하고,
+-- 기존 거래의 새 번호는 PK(id)로 채운다. (Snowflake 번호보다 항상 작아 겹치지 않는다.)
+drop index if exists ux_transaction_transaction_id;
+alter table transaction rename column transaction_id to legacy_transaction_id;
+alter table transaction alter column legacy_transaction_id drop not null;
+
+alter table transaction add column transaction_id bigint;
+update transaction set transaction_id = id;
+alter table transaction alter column transaction_id set not null;
+create unique index ux_transaction_transaction_id on transaction (transaction_id);
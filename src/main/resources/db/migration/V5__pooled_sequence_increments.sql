@@ -0,0 +1,5 @@
+-- pooled optimizer 는 시퀀스 increment 와 allocationSize 가 같아야 한다.
+-- (application.yml account.id.allocation-size 를 바꾸면 여기도 맞춰야 한다.)
+alter sequence account_seq increment by 50;
+alter sequence account_user_seq increment by 50;
+alter sequence transaction_seq increment by 100;
@@ -0,0 +1,11 @@
+-- 분할 잔액(hot account) 계좌의 하위 잔액 슬롯
+-- increment 는 application.yml account.id.allocation-size.account_sub_balance_seq 와 같아야 한다.
+create sequence if not exists account_sub_balance_seq start with 1 increment by 50;
+
+create table if not exists account_sub_balance (
+    id bigint not null primary key,
+    account_id bigint not null references account (id),
+    slot integer not null,
+    balance bigint default 0 not null
+);
+create unique index ux_account_sub_balance_account_slot on account_sub_balance (account_id, slot);
@@ -0,0 +1,3 @@
+-- 계좌 거래 내역 keyset 페이지 (account_id 로 좁힌 뒤 transacted_at, id 역순으로 이어 읽는다.)
+create index if not exists ix_transaction_account_transacted_at
+    on transaction (account_id, transacted_at, id);
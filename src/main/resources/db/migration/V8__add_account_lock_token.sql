@@ -0,0 +1,2 @@
+-- 잠금 fencing token (커밋 직전에 이보다 작은 토큰의 쓰기를 거절한다.)
+alter table account add column if not exists lock_token bigint;
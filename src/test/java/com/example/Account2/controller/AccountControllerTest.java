@@ -1,15 +1,18 @@
 package com.example.Account2.controller;
 
 import com.example.Account2.dto.AccountDto;
+import com.example.Account2.dto.AccountInfo;
 import com.example.Account2.dto.CreateAccount;
 import com.example.Account2.dto.DeleteAccount;
 import com.example.Account2.service.AccountService;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -30,6 +33,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AccountController.class)
+@Import(SimpleMeterRegistry.class)
 class AccountControllerTest {
     @MockBean
     private AccountService accountService;
@@ -93,20 +97,20 @@ class AccountControllerTest {
     @Test
     void successGetAccountByUserId() throws Exception {
         //given
-        List<AccountDto> accountDtos =
+        List<AccountInfo> accountInfos =
                 Arrays.asList(
-                        AccountDto.builder()
+                        AccountInfo.builder()
                             .accountNumber("1234567890")
                             .balance(1000L).build(),
-                        AccountDto.builder()
+                        AccountInfo.builder()
                             .accountNumber("1111111111")
                             .balance(30000L).build(),
-                        AccountDto.builder()
+                        AccountInfo.builder()
                                 .accountNumber("2222222222")
                                 .balance(20000L).build()
                 );
         given(accountService.getAccountsByUserId(anyLong()))
-                .willReturn(accountDtos);
+                .willReturn(accountInfos);
         //when
         //then
         mockMvc.perform(get("/account?user_id=1"))
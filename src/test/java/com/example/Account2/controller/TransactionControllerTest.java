@@ -3,39 +3,75 @@ package com.example.Account2.controller;
 import com.example.Account2.dto.AccountDto;
 import com.example.Account2.dto.CancelBalance;
 import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.dto.TransactionHistory;
 import com.example.Account2.dto.UseBalance;
+import com.example.Account2.dto.UseBalanceBatch;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.service.AccountActorEngine;
+import com.example.Account2.service.FailedTransactionRecorder;
+import com.example.Account2.service.TransactionBatchService;
+import com.example.Account2.service.TransactionHistoryService;
 import com.example.Account2.service.TransactionService;
+import com.example.Account2.type.ErrorCode;
 import com.example.Account2.type.TransactionResultType;
 import com.example.Account2.type.TransactionType;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
+@Import(SimpleMeterRegistry.class)
 class TransactionControllerTest {
 
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+
+    @MockBean
+    private AccountActorEngine accountActorEngine;
+
+    @MockBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockBean
+    private TransactionHistoryService transactionHistoryService;
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -70,6 +106,34 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.transactionResult").value("S"));
 
     }
+    @Test
+    void successUseBalance_actor() throws Exception {
+        //given
+        given(accountActorEngine.handles(anyString()))
+                .willReturn(true);
+        given(accountActorEngine.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionType(TransactionType.USE)
+                        .transactedAt(LocalDateTime.now())
+                        .amount(3000L)
+                        .transactionId("transactionId")
+                        .transactionResultType(TransactionResultType.S)
+                        .build()));
+        //when
+        //then
+        mockMvc.perform(post("/transaction/use")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "1000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.transactionResult").value("S"));
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+    }
+
     @Test
     void successCancelBalance() throws Exception {
         //given
@@ -99,6 +163,36 @@ class TransactionControllerTest {
 
     }
 
+    @Test
+    void successUseBalanceBatch() throws Exception {
+        //given
+        given(transactionBatchService.useBalances(anyList()))
+                .willReturn(List.of(
+                        UseBalanceBatch.Result.builder()
+                                .accountNumber("1000000000")
+                                .transactionResult(TransactionResultType.S)
+                                .transactionId("transactionId")
+                                .amount(1000L)
+                                .build(),
+                        UseBalanceBatch.Result.failed(
+                                new UseBalance.Request(1L, "2000000000", 3000L),
+                                ErrorCode.ACCOUNT_TRANSACTION_LOCK)));
+        //when
+        //then
+        mockMvc.perform(post("/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalanceBatch.Request(List.of(
+                                        new UseBalance.Request(1L, "1000000000", 1000L),
+                                        new UseBalance.Request(1L, "2000000000", 3000L)))
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].transactionResult").value("S"))
+                .andExpect(jsonPath("$.results[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.results[1].transactionResult").value("F"))
+                .andExpect(jsonPath("$.results[1].errorCode").value("ACCOUNT_TRANSACTION_LOCK"));
+    }
 
     @Test
     void successGetTransactionByTransactionId() throws Exception {
@@ -123,4 +217,41 @@ class TransactionControllerTest {
 
     }
 
-}
\ No newline at end of file
+    @Test
+    void successGetTransactionHistory() throws Exception {
+        //given
+        TransactionHistory.Query query = new TransactionHistory.Query(
+                1L, "1000000000", null, TransactionHistory.DEFAULT_SIZE);
+        given(transactionHistoryService.prepare("1000000000", null, TransactionHistory.DEFAULT_SIZE))
+                .willReturn(query);
+        willAnswer(invocation -> {
+            OutputStream outputStream = invocation.getArgument(1);
+            outputStream.write("{\"accountNumber\":\"1000000000\",\"items\":[],\"nextCursor\":null}"
+                    .getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).given(transactionHistoryService).write(eq(query), any(OutputStream.class));
+        //when
+        MvcResult mvcResult = mockMvc.perform(get("/account/1000000000/transactions"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        //then
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.items").isEmpty());
+    }
+
+    @Test
+    void failGetTransactionHistory_accountNotFound() throws Exception {
+        //given
+        given(transactionHistoryService.prepare(anyString(), any(), anyInt()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
+        //when
+        //then
+        mockMvc.perform(get("/account/1000000000/transactions").param("size", "10"))
+                .andDo(print())
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_NOT_FOUND"));
+        verify(transactionHistoryService, never()).write(any(), any());
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.BalanceStrategy;
+import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountActorEngineTest {
+    @Mock
+    private TransactionService transactionService;
+
+    private AccountActorEngine accountActorEngine;
+
+    @BeforeEach
+    void setUp() {
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getBalance().setStrategy(BalanceStrategy.ACTOR);
+        accountProperties.getBalance().getActor().setShards(2);
+        accountActorEngine = new AccountActorEngine(transactionService,
+                accountProperties, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        accountActorEngine.shutdown();
+    }
+
+    @Test
+    @DisplayName("명령 처리 후 커밋된 거래 반환")
+    void useBalance() {
+        //given
+        given(transactionService.applyBalanceCommands(anyList()))
+                .willAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        //when
+        TransactionDto transactionDto = AccountActorEngine.await(
+                accountActorEngine.useBalance(1L, "1000000000", 1000L));
+        //then
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        assertEquals(1000L, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("검증 실패 - 원래 오류 코드로 실패")
+    void commandFailed() {
+        //given
+        given(transactionService.applyBalanceCommands(anyList()))
+                .willReturn(List.of(new BalanceCommand.Result(null, ErrorCode.AMOUNT_EXCEED_BALANCE)));
+        //when
+        CompletableFuture<TransactionDto> future =
+                accountActorEngine.useBalance(1L, "1000000000", 1000L);
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> AccountActorEngine.await(future));
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("버전 충돌 시 묶음 전체 재시도")
+    void retryOnConflict() {
+        //given
+        given(transactionService.applyBalanceCommands(anyList()))
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        //when
+        TransactionDto transactionDto = AccountActorEngine.await(
+                accountActorEngine.useBalance(1L, "1000000000", 1000L));
+        //then
+        assertEquals(1000L, transactionDto.getAmount());
+        verify(transactionService, times(2)).applyBalanceCommands(anyList());
+    }
+
+    @Test
+    @DisplayName("같은 계좌의 명령은 들어온 순서대로 처리")
+    void ordered() {
+        //given
+        List<Long> processed = new CopyOnWriteArrayList<>();
+        given(transactionService.applyBalanceCommands(anyList()))
+                .willAnswer(invocation -> {
+                    List<BalanceCommand> commands = invocation.getArgument(0);
+                    commands.forEach(command -> processed.add(command.getAmount()));
+                    return succeedAll(commands);
+                });
+        List<CompletableFuture<TransactionDto>> futures = new ArrayList<>();
+        //when
+        for (long amount = 1; amount <= 1000; amount++) {
+            futures.add(accountActorEngine.useBalance(1L, "1000000000", amount));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        //then
+        assertEquals(1000, processed.size());
+        for (int i = 0; i < processed.size(); i++) {
+            assertEquals(i + 1, processed.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("actor 전략이 아니면 사용 불가")
+    void disabled() {
+        //given
+        AccountActorEngine disabledEngine = new AccountActorEngine(transactionService,
+                new AccountProperties(), new SimpleMeterRegistry());
+        //when
+        //then
+        assertFalse(disabledEngine.isEnabled());
+        assertThrows(IllegalStateException.class,
+                () -> disabledEngine.useBalance(1L, "1000000000", 1000L));
+    }
+
+    private static List<BalanceCommand.Result> succeedAll(List<BalanceCommand> commands) {
+        return commands.stream()
+                .map(command -> new BalanceCommand.Result(TransactionDto.builder()
+                        .accountNumber(command.getAccountNumber())
+                        .amount(command.getAmount())
+                        .build(), null))
+                .toList();
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.AccountInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.Codec;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountListCacheTest {
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RMap<Long, Long> generations;
+
+    private AccountListCache accountListCache;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.<Long, Long>getMap(anyString(), any(Codec.class)))
+                .willReturn(generations);
+        accountListCache = new AccountListCache(redissonClient,
+                new AccountProperties(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("캐시 적중 시 DB 조회 없음")
+    void hit() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        //when
+        accountListCache.get(1L, userId -> {
+            loads.incrementAndGet();
+            return List.of(new AccountInfo("1000000000", 1000L));
+        });
+        List<AccountInfo> accounts = accountListCache.get(1L, userId -> {
+            loads.incrementAndGet();
+            return List.of();
+        });
+        //then
+        assertEquals(1, loads.get());
+        assertEquals(1000L, accounts.get(0).getBalance());
+    }
+
+    @Test
+    @DisplayName("무효화하면 공유 세대를 올리고 다시 조회")
+    void evict() {
+        //given
+        accountListCache.get(1L, userId -> List.of(new AccountInfo("1000000000", 1000L)));
+        //when
+        accountListCache.evictAfterCommit(1L);
+        List<AccountInfo> accounts = accountListCache.get(1L,
+                userId -> List.of(new AccountInfo("1000000000", 0L)));
+        //then
+        assertEquals(0L, accounts.get(0).getBalance());
+        verify(generations, times(1)).addAndGet(1L, 1L);
+    }
+
+    @Test
+    @DisplayName("다른 노드가 세대를 올리면 다시 조회")
+    void changedOnOtherNode() {
+        //given
+        given(generations.get(1L)).willReturn(3L, 4L);
+        accountListCache.get(1L, userId -> List.of(new AccountInfo("1000000000", 1000L)));
+        //when
+        List<AccountInfo> accounts = accountListCache.get(1L,
+                userId -> List.of(new AccountInfo("1000000000", 0L)));
+        //then
+        assertEquals(0L, accounts.get(0).getBalance());
+    }
+
+    @Test
+    @DisplayName("조회 중 무효화되면 읽은 값을 다음 조회에서 버림")
+    void staleLoadIsNotServed() {
+        //given
+        given(generations.get(1L)).willReturn(0L, 1L);
+        //when
+        List<AccountInfo> stale = accountListCache.get(1L,
+                //DB 를 읽은 뒤, 캐시에 넣기 전에 다른 트랜잭션이 커밋됨
+                userId -> List.of(new AccountInfo("1000000000", 1000L)));
+        List<AccountInfo> accounts = accountListCache.get(1L,
+                userId -> List.of(new AccountInfo("1000000000", 0L)));
+        //then
+        assertEquals(1000L, stale.get(0).getBalance());
+        assertEquals(0L, accounts.get(0).getBalance());
+    }
+
+    @Test
+    @DisplayName("세대를 읽지 못하면 캐시 없이 DB 조회")
+    void generationUnavailable() {
+        //given
+        given(generations.get(1L)).willThrow(new RedisException("down"));
+        AtomicInteger loads = new AtomicInteger();
+        //when
+        for (int i = 0; i < 2; i++) {
+            accountListCache.get(1L, userId -> {
+                loads.incrementAndGet();
+                return List.of(new AccountInfo("1000000000", 1000L));
+            });
+        }
+        //then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("커밋 직전에 세대를 올리지 못하면 커밋하지 않음")
+    void bumpFailureBeforeCommitRejectsCommit() {
+        //given
+        given(generations.addAndGet(1L, 1L)).willThrow(new RedisException("down"));
+        TransactionSynchronizationManager.initSynchronization();
+        accountListCache.evictAfterCommit(1L);
+        //when
+        //then
+        assertThrows(RedisException.class, () -> {
+            for (TransactionSynchronization synchronization :
+                    TransactionSynchronizationManager.getSynchronizations()) {
+                synchronization.beforeCommit(false);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("커밋 직후에 세대를 올리지 못하면 올릴 때까지 캐시하지 않음")
+    void bumpFailureAfterCommitStopsCaching() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        given(generations.addAndGet(1L, 1L))
+                .willReturn(1L)
+                .willThrow(new RedisException("down"));
+        TransactionSynchronizationManager.initSynchronization();
+        accountListCache.evictAfterCommit(1L);
+        for (TransactionSynchronization synchronization :
+                TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+            synchronization.afterCommit();
+        }
+        //when
+        for (int i = 0; i < 2; i++) {
+            accountListCache.get(1L, userId -> {
+                loads.incrementAndGet();
+                return List.of(new AccountInfo("1000000000", 0L));
+            });
+        }
+        //then
+        assertEquals(2, loads.get());
+        verify(generations, times(4)).addAndGet(1L, 1L);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.domain.AccountUser;
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.AccountSubBalanceRepository;
+import com.example.Account2.repository.AccountUserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberAllocatorTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private AccountUserRepository accountUserRepository;
+    @Mock
+    private AccountListCache accountListCache;
+    @Mock
+    private AccountSubBalanceRepository accountSubBalanceRepository;
+    @Spy
+    private AccountProperties accountProperties = new AccountProperties();
+    @InjectMocks
+    private AccountNumberAllocator accountNumberAllocator;
+
+    @Test
+    @DisplayName("한 구간 안에서는 시퀀스를 다시 조회하지 않음")
+    void allocateWithinBlock() {
+        //given
+        given(accountRepository.nextAccountNumberBlock())
+                .willReturn(1000000000L);
+        //when
+        String first = accountNumberAllocator.next();
+        String second = accountNumberAllocator.next();
+        //then
+        verify(accountRepository, times(1)).nextAccountNumberBlock();
+        assertEquals("1000000000", first);
+        assertEquals("1000000001", second);
+    }
+
+    @Test
+    @DisplayName("구간 소진 시 다음 구간 선점")
+    void leaseNextBlock() {
+        //given
+        accountProperties.getNumbering().setBlockSize(2);
+        given(accountRepository.nextAccountNumberBlock())
+                .willReturn(1000000000L, 1000000002L);
+        //when
+        accountNumberAllocator.next();
+        accountNumberAllocator.next();
+        String third = accountNumberAllocator.next();
+        //then
+        verify(accountRepository, times(2)).nextAccountNumberBlock();
+        assertEquals("1000000002", third);
+    }
+
+    @Test
+    @DisplayName("동시 계좌 생성 시 계좌 번호 중복 없음")
+    void concurrentCreateAccount_uniqueNumbers() throws Exception {
+        //given
+        int requests = 5000;
+        accountProperties.getNumbering().setBlockSize(100);
+        AtomicLong sequence = new AtomicLong(1000000000L);
+        given(accountRepository.nextAccountNumberBlock())
+                .willAnswer(invocation -> sequence.getAndAdd(100));
+        given(accountRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(AccountUser.builder()
+                        .id(12L)
+                        .name("pobi")
+                        .build()));
+        AccountService accountService = new AccountService(
+                accountRepository, accountUserRepository, accountNumberAllocator,
+                accountListCache, accountSubBalanceRepository);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            futures.add(executorService.submit(() -> {
+                start.await();
+                return accountService.createAccount(12L, 1000L).getAccountNumber();
+            }));
+        }
+        //when
+        start.countDown();
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        for (Future<String> future : futures) {
+            accountNumbers.add(future.get(10, TimeUnit.SECONDS));
+        }
+        executorService.shutdown();
+        //then
+        assertEquals(requests, accountNumbers.size());
+    }
+}
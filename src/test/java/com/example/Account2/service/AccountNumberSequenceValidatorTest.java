@@ -0,0 +1,56 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.repository.AccountRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberSequenceValidatorTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Spy
+    private AccountProperties accountProperties = new AccountProperties();
+    @InjectMocks
+    private AccountNumberSequenceValidator accountNumberSequenceValidator;
+
+    @Test
+    void incrementMatchesBlockSize() {
+        //given
+        given(accountRepository.findAccountNumberSequenceIncrement())
+                .willReturn(1000L);
+        //when
+        //then
+        assertDoesNotThrow(() -> accountNumberSequenceValidator.run(null));
+    }
+
+    @Test
+    void failWhenIncrementDiffers() {
+        //given
+        given(accountRepository.findAccountNumberSequenceIncrement())
+                .willReturn(1L);
+        //when
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> accountNumberSequenceValidator.run(null));
+        //then
+        assertTrue(exception.getMessage().contains("block-size"));
+    }
+
+    @Test
+    void failWhenSequenceMissing() {
+        //given
+        given(accountRepository.findAccountNumberSequenceIncrement())
+                .willReturn(null);
+        //when
+        //then
+        assertThrows(IllegalStateException.class,
+                () -> accountNumberSequenceValidator.run(null));
+    }
+}
@@ -3,8 +3,10 @@ package com.example.Account2.service;
 import com.example.Account2.domain.Account;
 import com.example.Account2.domain.AccountUser;
 import com.example.Account2.dto.AccountDto;
+import com.example.Account2.dto.AccountInfo;
 import com.example.Account2.exception.AccountException;
 import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.AccountSubBalanceRepository;
 import com.example.Account2.repository.AccountUserRepository;
 import com.example.Account2.type.AccountStatus;
 import com.example.Account2.type.ErrorCode;
@@ -20,6 +22,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -33,6 +36,12 @@ class AccountServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
+    @Mock
+    private AccountNumberAllocator accountNumberAllocator;
+    @Mock
+    private AccountListCache accountListCache;
+    @Mock
+    private AccountSubBalanceRepository accountSubBalanceRepository;
     @InjectMocks
     private AccountService accountService;
 
@@ -45,10 +54,8 @@ class AccountServiceTest {
                 .build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                        .accountNumber("1000000012")
-                        .build()));
+        given(accountNumberAllocator.next())
+                .willReturn("1000000013");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(user)
@@ -62,6 +69,7 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(12L, accountDto.getUserId());
         assertEquals("1000000013", captor.getValue().getAccountNumber());
+        verify(accountListCache, times(1)).evictAfterCommit(12L);
     }
 
     @Test
@@ -73,8 +81,8 @@ class AccountServiceTest {
                 .build();
         given(accountUserRepository.findById(anyLong()))
                 .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.empty());
+        given(accountNumberAllocator.next())
+                .willReturn("1000000000");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(user)
@@ -277,43 +285,48 @@ class AccountServiceTest {
     @DisplayName("ID로 계좌 조회")
     void successGetAccountsByUserId() {
         //given
-        AccountUser user = AccountUser.builder()
-                .id(12L)
-                .name("pobi")
-                .build();
-        List<Account> accounts = Arrays.asList(
-                Account.builder()
-                        .accountUser(user)
-                        .accountNumber("1234567890")
-                        .balance(1000L).build(),
-                Account.builder()
-                        .accountUser(user)
-                        .accountNumber("1111111111")
-                        .balance(30000L).build(),
-                Account.builder()
-                        .accountUser(user)
-                        .accountNumber("2222222222")
-                        .balance(20000L).build()
+        givenCacheMiss();
+        List<AccountInfo> accounts = Arrays.asList(
+                new AccountInfo("1234567890", 1000L),
+                new AccountInfo("1111111111", 30000L),
+                new AccountInfo("2222222222", 20000L)
         );
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountUser(any()))
+        given(accountRepository.findAccountInfosByUserId(anyLong()))
                 .willReturn(accounts);
         //when
-        List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
+        List<AccountInfo> accountInfos = accountService.getAccountsByUserId(1L);
         //then
-        assertEquals(3, accountDtos.size());
-        assertEquals("1234567890", accountDtos.get(0).getAccountNumber());
-        assertEquals(1000, accountDtos.get(0).getBalance());
+        verify(accountUserRepository, times(0)).existsById(anyLong());
+        assertEquals(3, accountInfos.size());
+        assertEquals("1234567890", accountInfos.get(0).getAccountNumber());
+        assertEquals(1000, accountInfos.get(0).getBalance());
+
+    }
 
+    @Test
+    @DisplayName("계좌가 없는 사용자의 계좌 조회")
+    void getAccountsByUserId_noAccount() {
+        //given
+        givenCacheMiss();
+        given(accountRepository.findAccountInfosByUserId(anyLong()))
+                .willReturn(List.of());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        //when
+        List<AccountInfo> accountInfos = accountService.getAccountsByUserId(1L);
+        //then
+        assertTrue(accountInfos.isEmpty());
     }
 
     @Test
     @DisplayName("Id에 의한 계좌 조회 -> Id가 존재하지 않음")
     void failedToGetAccounts() {
         //given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        givenCacheMiss();
+        given(accountRepository.findAccountInfosByUserId(anyLong()))
+                .willReturn(List.of());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
         //when
         AccountException accountException = assertThrows(AccountException.class,
                 () -> accountService.getAccountsByUserId(1L));
@@ -321,7 +334,10 @@ class AccountServiceTest {
         assertEquals(ErrorCode.USER_NOT_FOUND, accountException.getErrorCode());
     }
 
-
-
-
-}
\ No newline at end of file
+    @SuppressWarnings("unchecked")
+    private void givenCacheMiss() {
+        given(accountListCache.get(anyLong(), any()))
+                .willAnswer(invocation -> ((Function<Long, List<AccountInfo>>) invocation.getArgument(1))
+                        .apply(invocation.getArgument(0)));
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.type.OverflowPolicy;
+import com.example.Account2.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+    @Mock
+    private TransactionService transactionService;
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private FailedTransactionRecorder recorder;
+
+    @AfterEach
+    void tearDown() {
+        if (recorder != null) {
+            recorder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("요청 스레드에서 저장하지 않고 묶어서 저장")
+    void saveInBackground() {
+        //given
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.saveFailedTransactions(anyList()))
+                .willAnswer(invocation -> {
+                    blocked.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return 0;
+                });
+        recorder = newRecorder(100, OverflowPolicy.DROP);
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        //when
+        recorder.recordUse("1000000000", 1000L);
+        await(blocked);
+        recorder.recordUse("1000000000", 2000L);
+        recorder.recordCancel("1000000000", 3000L);
+        release.countDown();
+        //then
+        verify(transactionService, timeout(5000).times(2)).saveFailedTransactions(captor.capture());
+        List<FailedTransaction> second = captor.getAllValues().get(1);
+        assertEquals(2, second.size());
+        assertEquals(TransactionType.CANCEL, second.get(1).transactionType());
+        verify(transactionService, never()).saveFailedUseTransaction("1000000000", 1000L);
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 DROP - 버리고 건수만 기록")
+    void drop() {
+        //given
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.saveFailedTransactions(anyList()))
+                .willAnswer(invocation -> {
+                    blocked.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return 0;
+                });
+        recorder = newRecorder(1, OverflowPolicy.DROP);
+        //when
+        recorder.recordUse("1000000000", 1000L);
+        await(blocked);
+        recorder.recordUse("1000000000", 2000L);
+        recorder.recordUse("1000000000", 3000L);
+        release.countDown();
+        //then
+        assertEquals(1.0, meterRegistry.get("account.failure-log.dropped").counter().count());
+        verify(transactionService, timeout(5000).times(2)).saveFailedTransactions(anyList());
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 SPILL - 파일에 남겼다가 한가할 때 저장")
+    void spill() throws Exception {
+        //given
+        CountDownLatch blocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.saveFailedTransactions(anyList()))
+                .willAnswer(invocation -> {
+                    blocked.countDown();
+                    release.await(5, TimeUnit.SECONDS);
+                    return 0;
+                });
+        recorder = newRecorder(1, OverflowPolicy.SPILL);
+        Path spillFile = directory.resolve("failed.spill");
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        //when
+        recorder.recordUse("1000000000", 1000L);
+        await(blocked);
+        recorder.recordUse("1000000000", 2000L);
+        recorder.recordUse("1000000000", 3000L);
+        List<String> spilled = Files.readAllLines(spillFile);
+        release.countDown();
+        //then
+        assertEquals(1, spilled.size());
+        assertEquals(3000L, objectMapper.readValue(spilled.get(0), FailedTransaction.class).amount());
+        verify(transactionService, timeout(5000).times(3)).saveFailedTransactions(captor.capture());
+        assertEquals(3000L, captor.getAllValues().get(2).get(0).amount());
+        assertEquals(0.0, meterRegistry.get("account.failure-log.dropped").counter().count());
+    }
+
+    @Test
+    @DisplayName("spill 파일의 읽을 수 없는 줄은 건너뛰고 나머지를 저장")
+    void replaySkipsMalformedLines() throws Exception {
+        //given
+        Path spillFile = directory.resolve("failed.spill");
+        Files.write(spillFile, List.of(
+                line(TransactionType.USE, "10,000\n000", 1000L),
+                "USE,1000000000,2000,2024-01-01T00:00:00",
+                line(TransactionType.CANCEL, "1000000000", 3000L)));
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        //when
+        recorder = newRecorder(100, OverflowPolicy.SPILL);
+        //then
+        verify(transactionService, timeout(5000).times(1)).saveFailedTransactions(captor.capture());
+        List<FailedTransaction> saved = captor.getValue();
+        assertEquals(2, saved.size());
+        assertEquals("10,000\n000", saved.get(0).accountNumber());
+        assertEquals(3000L, saved.get(1).amount());
+        assertEquals(1.0, meterRegistry.get("account.failure-log.malformed").counter().count());
+        awaitDeleted(directory.resolve("failed.spill.replay"));
+        verify(transactionService, times(1)).saveFailedTransactions(anyList());
+    }
+
+    @Test
+    @DisplayName("중간에 멈춘 replay 는 저장한 줄을 다시 저장하지 않음")
+    void resumeReplay() throws Exception {
+        //given
+        Files.write(directory.resolve("failed.spill.replay"), List.of(
+                line(TransactionType.USE, "1000000000", 1000L),
+                line(TransactionType.USE, "1000000000", 2000L),
+                line(TransactionType.USE, "1000000000", 3000L)));
+        Files.writeString(directory.resolve("failed.spill.replay.progress"), "2");
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        //when
+        recorder = newRecorder(100, OverflowPolicy.SPILL);
+        //then
+        verify(transactionService, timeout(5000).times(1)).saveFailedTransactions(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals(3000L, captor.getValue().get(0).amount());
+        awaitDeleted(directory.resolve("failed.spill.replay.progress"));
+    }
+
+    @Test
+    @DisplayName("async=false 면 요청 스레드에서 바로 저장")
+    void sync() {
+        //given
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getFailureLog().setAsync(false);
+        recorder = new FailedTransactionRecorder(transactionService, objectMapper,
+                accountProperties, meterRegistry);
+        //when
+        recorder.recordCancel("1000000000", 1000L);
+        //then
+        verify(transactionService, times(1)).saveFailedCancelTransaction("1000000000", 1000L);
+        verify(transactionService, never()).saveFailedTransactions(anyList());
+    }
+
+    private FailedTransactionRecorder newRecorder(int queueCapacity, OverflowPolicy overflow) {
+        AccountProperties accountProperties = new AccountProperties();
+        AccountProperties.FailureLog failureLog = accountProperties.getFailureLog();
+        failureLog.setQueueCapacity(queueCapacity);
+        failureLog.setOverflow(overflow);
+        failureLog.setSpillFile(directory.resolve("failed.spill").toString());
+        failureLog.setIdleInterval(Duration.ofMillis(20));
+        return new FailedTransactionRecorder(transactionService, objectMapper,
+                accountProperties, meterRegistry);
+    }
+
+    private String line(TransactionType transactionType, String accountNumber, Long amount) throws Exception {
+        return objectMapper.writeValueAsString(new FailedTransaction(transactionType, accountNumber,
+                amount, LocalDateTime.now()));
+    }
+
+    private static void awaitDeleted(Path file) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (Files.exists(file) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertFalse(Files.exists(file));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.BalanceStrategy;
+import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class GroupCommitterTest {
+    @Mock
+    private TransactionService transactionService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private GroupCommitter groupCommitter;
+
+    @AfterEach
+    void tearDown() {
+        if (groupCommitter != null) {
+            groupCommitter.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("window 안에 들어온 명령은 한 번에 커밋")
+    void commitWithinWindow() {
+        //given
+        groupCommitter = newGroupCommitter(Duration.ofMillis(200), 10);
+        given(transactionService.applyGroupCommit(anyList()))
+                .willAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        //when
+        List<CompletableFuture<TransactionDto>> futures = new ArrayList<>();
+        for (long amount = 1; amount <= 3; amount++) {
+            futures.add(groupCommitter.submit(
+                    BalanceCommand.use(1L, "100000000" + amount, amount)));
+        }
+        //then
+        for (int i = 0; i < futures.size(); i++) {
+            assertEquals(i + 1, CommandBatchCommitter.await(futures.get(i)).getAmount());
+        }
+        verify(transactionService, times(1)).applyGroupCommit(anyList());
+        assertEquals(3.0, meterRegistry.get("account.group-commit.batch.size")
+                .summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("maxBatch 가 차면 window 를 기다리지 않음")
+    void commitWhenFull() {
+        //given
+        groupCommitter = newGroupCommitter(Duration.ofMinutes(1), 2);
+        given(transactionService.applyGroupCommit(anyList()))
+                .willAnswer(invocation -> succeedAll(invocation.getArgument(0)));
+        //when
+        CompletableFuture<TransactionDto> first =
+                groupCommitter.submit(BalanceCommand.use(1L, "1000000001", 1L));
+        CompletableFuture<TransactionDto> second =
+                groupCommitter.submit(BalanceCommand.use(1L, "1000000002", 2L));
+        //then
+        assertEquals(2L, second.orTimeout(5, TimeUnit.SECONDS).join().getAmount());
+        assertEquals(1L, first.join().getAmount());
+    }
+
+    @Test
+    @DisplayName("실패한 명령만 오류 코드로 실패")
+    void partialFailure() {
+        //given
+        groupCommitter = newGroupCommitter(Duration.ofMillis(200), 2);
+        given(transactionService.applyGroupCommit(anyList()))
+                .willReturn(List.of(
+                        new BalanceCommand.Result(TransactionDto.builder().amount(1L).build(), null),
+                        new BalanceCommand.Result(null, ErrorCode.AMOUNT_EXCEED_BALANCE)));
+        //when
+        CompletableFuture<TransactionDto> first =
+                groupCommitter.submit(BalanceCommand.use(1L, "1000000001", 1L));
+        CompletableFuture<TransactionDto> second =
+                groupCommitter.submit(BalanceCommand.use(1L, "1000000002", 2L));
+        //then
+        assertEquals(1L, CommandBatchCommitter.await(first).getAmount());
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> CommandBatchCommitter.await(second));
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("대기열이 가득 차면 바로 거절")
+    void rejectWhenQueueFull() throws InterruptedException {
+        //given
+        AccountProperties accountProperties = new AccountProperties();
+        AccountProperties.GroupCommit groupCommit = accountProperties.getBalance().getGroupCommit();
+        groupCommit.setEnabled(true);
+        groupCommit.setWindow(Duration.ZERO);
+        groupCommit.setMaxBatch(1);
+        groupCommit.setQueueCapacity(1);
+        groupCommitter = new GroupCommitter(transactionService, accountProperties, meterRegistry);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(transactionService.applyGroupCommit(anyList()))
+                .willAnswer(invocation -> {
+                    committing.countDown();
+                    release.await();
+                    return succeedAll(invocation.getArgument(0));
+                });
+        CompletableFuture<TransactionDto> first =
+                groupCommitter.submit(BalanceCommand.use(1L, "1000000001", 1L));
+        assertTrue(committing.await(5, TimeUnit.SECONDS));
+        CompletableFuture<TransactionDto> queued =
+                groupCommitter.submit(BalanceCommand.use(1L, "1000000002", 2L));
+        //when
+        CompletableFuture<TransactionDto> rejected =
+                groupCommitter.submit(BalanceCommand.use(1L, "1000000003", 3L));
+        release.countDown();
+        //then
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> CommandBatchCommitter.await(rejected));
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        assertEquals(1L, CommandBatchCommitter.await(first).getAmount());
+        assertEquals(2L, CommandBatchCommitter.await(queued).getAmount());
+        assertEquals(1.0, meterRegistry.get("account.group-commit.rejected").counter().count());
+    }
+
+    @Test
+    @DisplayName("atomic-sql 전략에서는 켜지지 않음")
+    void disabledForAtomicSql() {
+        //given
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getBalance().getGroupCommit().setEnabled(true);
+        accountProperties.getBalance().setStrategy(BalanceStrategy.ATOMIC_SQL);
+        //when
+        groupCommitter = new GroupCommitter(transactionService, accountProperties, meterRegistry);
+        //then
+        assertFalse(groupCommitter.isEnabled());
+        assertThrows(IllegalStateException.class,
+                () -> groupCommitter.submit(BalanceCommand.use(1L, "1000000001", 1L)));
+    }
+
+    private GroupCommitter newGroupCommitter(Duration window, int maxBatch) {
+        AccountProperties accountProperties = new AccountProperties();
+        AccountProperties.GroupCommit groupCommit = accountProperties.getBalance().getGroupCommit();
+        groupCommit.setEnabled(true);
+        groupCommit.setWindow(window);
+        groupCommit.setMaxBatch(maxBatch);
+        return new GroupCommitter(transactionService, accountProperties, meterRegistry);
+    }
+
+    private static List<BalanceCommand.Result> succeedAll(List<BalanceCommand> commands) {
+        return commands.stream()
+                .map(command -> new BalanceCommand.Result(TransactionDto.builder()
+                        .accountNumber(command.getAccountNumber())
+                        .amount(command.getAmount())
+                        .build(), null))
+                .toList();
+    }
+}
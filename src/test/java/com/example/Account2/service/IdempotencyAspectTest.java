@@ -0,0 +1,160 @@
+package com.example.Account2.service;
+
+import com.example.Account2.aop.Idempotent;
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.UseBalance;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import com.example.Account2.type.TransactionResultType;
+import com.example.Account2.type.TransactionType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+    private static final Idempotent USE = new Idempotent() {
+        @Override
+        public TransactionType value() {
+            return TransactionType.USE;
+        }
+
+        @Override
+        public Class<Idempotent> annotationType() {
+            return Idempotent.class;
+        }
+    };
+
+    @Mock
+    private IdempotencyStore idempotencyStore;
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+    @Mock
+    private MethodSignature methodSignature;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final UseBalance.Request request = new UseBalance.Request(1L, "1000000000", 1000L);
+    private MockHttpServletRequest httpRequest;
+    private IdempotencyAspect idempotencyAspect;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyAspect = new IdempotencyAspect(idempotencyStore, objectMapper,
+                new AccountProperties(), new SimpleMeterRegistry());
+        httpRequest = new MockHttpServletRequest();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(httpRequest));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("헤더가 없으면 저장소를 거치지 않는다")
+    void noHeader() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willReturn(response());
+        //when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, USE);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(idempotencyStore, never()).claim(anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("처음 들어온 키는 실행하고 응답을 기록한다")
+    void firstRequest() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "key-1");
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{request});
+        given(proceedingJoinPoint.proceed()).willReturn(response());
+        //when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, USE);
+        //then
+        verify(idempotencyStore, times(1)).claim(eq("USE:key-1"), anyString());
+        verify(idempotencyStore, times(1)).complete(eq("USE:key-1"), anyString(), anyString());
+    }
+
+    @Test
+    @DisplayName("처리가 끝난 키는 다시 실행하지 않고 처음 응답을 돌려준다")
+    void replay() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "key-1");
+        String fingerprint = objectMapper.writeValueAsString(new Object[]{request});
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{request});
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getReturnType()).willReturn(UseBalance.Response.class);
+        given(idempotencyStore.claim("USE:key-1", fingerprint))
+                .willReturn(new IdempotencyStore.Entry(fingerprint,
+                        objectMapper.writeValueAsString(response())));
+        //when
+        UseBalance.Response response = (UseBalance.Response)
+                idempotencyAspect.aroundMethod(proceedingJoinPoint, USE);
+        //then
+        verify(proceedingJoinPoint, never()).proceed();
+        assertEquals("20240101000000000001", response.getTransactionId());
+        assertEquals(1000L, response.getAmount());
+    }
+
+    @Test
+    @DisplayName("다른 요청 본문으로 재사용된 키는 거절한다")
+    void reusedKey() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "key-1");
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{request});
+        given(idempotencyStore.claim(eq("USE:key-1"), anyString()))
+                .willReturn(new IdempotencyStore.Entry("other", null));
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, USE));
+        //then
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+        verify(proceedingJoinPoint, never()).proceed();
+    }
+
+    @Test
+    @DisplayName("실행에 실패하면 선점을 풀어 다시 시도할 수 있게 한다")
+    void releaseOnFailure() throws Throwable {
+        //given
+        httpRequest.addHeader(IdempotencyAspect.HEADER, "key-1");
+        given(proceedingJoinPoint.getArgs()).willReturn(new Object[]{request});
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        //when
+        assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, USE));
+        //then
+        verify(idempotencyStore, times(1)).release(eq("USE:key-1"), anyString());
+        verify(idempotencyStore, never()).complete(anyString(), anyString(), anyString());
+    }
+
+    private static UseBalance.Response response() {
+        return UseBalance.Response.builder()
+                .accountNumber("1000000000")
+                .transactionResult(TransactionResultType.S)
+                .transactionId("20240101000000000001")
+                .amount(1000L)
+                .build();
+    }
+}
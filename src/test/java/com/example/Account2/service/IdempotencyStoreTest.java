@@ -0,0 +1,66 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyStoreTest {
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RMapCache<String, IdempotencyStore.Entry> entries;
+
+    private IdempotencyStore idempotencyStore;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.<String, IdempotencyStore.Entry>getMapCache(anyString(), any(Codec.class)))
+                .willReturn(entries);
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getIdempotency().setTtl(Duration.ofHours(24));
+        accountProperties.getIdempotency().setInProgressTtl(Duration.ofSeconds(30));
+        idempotencyStore = new IdempotencyStore(redissonClient, new ObjectMapper(), accountProperties);
+    }
+
+    @Test
+    @DisplayName("처리 중 선점은 짧은 TTL 로 저장")
+    void claimWithInProgressTtl() {
+        //given
+        //when
+        IdempotencyStore.Entry existing = idempotencyStore.claim("USE:key", "fingerprint");
+        //then
+        assertNull(existing);
+        verify(entries, times(1)).putIfAbsent("USE:key", new IdempotencyStore.Entry("fingerprint", null),
+                Duration.ofSeconds(30).toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    @DisplayName("응답을 기록하면 TTL 을 ttl 로 늘림")
+    void completeWithTtl() {
+        //given
+        //when
+        idempotencyStore.complete("USE:key", "fingerprint", "{}");
+        //then
+        verify(entries, times(1)).fastPut("USE:key", new IdempotencyStore.Entry("fingerprint", "{}"),
+                Duration.ofHours(24).toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.LatencyInjectionProperties;
+import com.example.Account2.type.DelayDistribution;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LatencyInjectionAspectTest {
+    @Spy
+    private LatencyInjectionProperties latencyInjectionProperties =
+            new LatencyInjectionProperties();
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+    @InjectMocks
+    private LatencyInjectionAspect latencyInjectionAspect;
+
+    @AfterEach
+    void resetRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("설정된 엔드포인트에 지연 주입")
+    void injectLatency() throws Throwable {
+        //given
+        LatencyInjectionProperties.Endpoint endpoint = new LatencyInjectionProperties.Endpoint();
+        endpoint.setDelay(Duration.ofMillis(20));
+        latencyInjectionProperties.getEndpoints().put("/transaction/use", endpoint);
+        bindRequest("/transaction/use");
+        //when
+        long start = System.nanoTime();
+        latencyInjectionAspect.aroundMethod(proceedingJoinPoint);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        assertTrue(elapsedMillis >= 20);
+        assertEquals(1, meterRegistry.get("latency.injection")
+                .tag("endpoint", "/transaction/use")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("설정되지 않은 엔드포인트는 지연 없음")
+    void noLatencyForUnconfiguredEndpoint() throws Throwable {
+        //given
+        bindRequest("/transaction/cancel");
+        //when
+        latencyInjectionAspect.aroundMethod(proceedingJoinPoint);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        assertNull(meterRegistry.find("latency.injection").timer());
+    }
+
+    @Test
+    @DisplayName("균등 분포 지연은 min ~ max 범위")
+    void uniformDelayWithinBounds() {
+        //given
+        LatencyInjectionProperties.Endpoint endpoint = new LatencyInjectionProperties.Endpoint();
+        endpoint.setDistribution(DelayDistribution.UNIFORM);
+        endpoint.setMin(Duration.ofMillis(10));
+        endpoint.setMax(Duration.ofMillis(30));
+        //when
+        //then
+        for (int i = 0; i < 1000; i++) {
+            long delay = LatencyInjectionAspect.nextDelayMillis(
+                    endpoint, ThreadLocalRandom.current());
+            assertTrue(delay >= 10 && delay <= 30);
+        }
+    }
+
+    private static void bindRequest(String pattern) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.Account2.service;
 
+import com.example.Account2.aop.AccountLock;
+import com.example.Account2.config.AccountProperties;
 import com.example.Account2.dto.UseBalance;
 import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.BalanceStrategy;
 import com.example.Account2.type.ErrorCode;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.junit.jupiter.api.Test;
@@ -9,19 +12,44 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.Set;
+
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockAopAspectTest {
+    private static final AccountLock ACCOUNT_LOCK = new AccountLock() {
+        @Override
+        public long tryLockTime() {
+            return 1000L;
+        }
+
+        @Override
+        public long leaseTime() {
+            return 15000L;
+        }
+
+        @Override
+        public Class<AccountLock> annotationType() {
+            return AccountLock.class;
+        }
+    };
+
     @Mock
     private LockService lockService;
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
+    @Spy
+    private AccountProperties accountProperties = new AccountProperties();
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
@@ -35,10 +63,10 @@ class LockAopAspectTest {
         UseBalance.Request request =
                 new UseBalance.Request(123L, "1234", 1000L);
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint, ACCOUNT_LOCK, request);
         //then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), eq(1000L), eq(15000L));
         verify(lockService, times(1))
                 .unlock(unLockArgumentCaptor.capture());
         assertEquals("1234", lockArgumentCaptor.getValue());
@@ -59,15 +87,41 @@ class LockAopAspectTest {
                 .willThrow(new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));
         //when
         assertThrows(AccountException.class, () ->
-            lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+            lockAopAspect.aroundMethod(proceedingJoinPoint, ACCOUNT_LOCK, request));
         //then
         verify(lockService, times(1))
-                .lock(lockArgumentCaptor.capture());
+                .lock(lockArgumentCaptor.capture(), eq(1000L), eq(15000L));
         verify(lockService, times(1))
                 .unlock(unLockArgumentCaptor.capture());
         assertEquals("54321", lockArgumentCaptor.getValue());
         assertEquals("54321", unLockArgumentCaptor.getValue());
     }
 
+    @Test
+    void noLock_atomicSql() throws Throwable {
+        //given
+        accountProperties.getBalance().setStrategy(BalanceStrategy.ATOMIC_SQL);
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234", 1000L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, ACCOUNT_LOCK, request);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(lockService, times(0)).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, times(0)).unlock(anyString());
+    }
 
-}
\ No newline at end of file
+    @Test
+    void noLock_splitBalance() throws Throwable {
+        //given
+        accountProperties.getBalance().getSplitBalance().setAccountNumbers(Set.of("1234"));
+        UseBalance.Request request =
+                new UseBalance.Request(123L, "1234", 1000L);
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint, ACCOUNT_LOCK, request);
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(lockService, times(0)).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, times(0)).unlock(anyString());
+    }
+}
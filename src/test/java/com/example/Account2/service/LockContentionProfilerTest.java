@@ -0,0 +1,102 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.LockContentionReport;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LockContentionProfilerTest {
+    private LockContentionProfiler lockContentionProfiler;
+
+    @BeforeEach
+    void setUp() {
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getLock().getProfiler().setCapacity(3);
+        lockContentionProfiler = new LockContentionProfiler(accountProperties);
+    }
+
+    @Test
+    @DisplayName("경합이 잦은 계좌 순으로 보여준다")
+    void topAccounts() {
+        //given
+        for (int i = 0; i < 50; i++) {
+            lockContentionProfiler.recordAcquired("1000000001", TimeUnit.MILLISECONDS.toNanos(5));
+        }
+        for (int i = 0; i < 20; i++) {
+            lockContentionProfiler.recordRejected("1000000002", TimeUnit.SECONDS.toNanos(1));
+        }
+        //when
+        LockContentionReport report = lockContentionProfiler.report(10);
+        //then
+        assertEquals(2, report.getHotAccounts().size());
+        assertEquals("1000000001", report.getHotAccounts().get(0).getAccountNumber());
+        assertEquals(50, report.getHotAccounts().get(0).getContended());
+        assertEquals(0, report.getHotAccounts().get(0).getRejected());
+        assertEquals(20, report.getHotAccounts().get(1).getRejected());
+        assertEquals(70, report.getWaits().getCount());
+        assertTrue(report.getHotAccounts().get(1).getWaits().getP50() >= 990_000);
+    }
+
+    @Test
+    @DisplayName("optimistic 버전 충돌도 계좌별 경합으로 센다")
+    void conflicts() {
+        //given
+        for (int i = 0; i < 30; i++) {
+            lockContentionProfiler.recordConflict("1000000003");
+        }
+        lockContentionProfiler.recordRejected("1000000003", TimeUnit.SECONDS.toNanos(1));
+        //when
+        LockContentionReport report = lockContentionProfiler.report(10);
+        //then
+        LockContentionReport.HotAccount hotAccount = report.getHotAccounts().get(0);
+        assertEquals("1000000003", hotAccount.getAccountNumber());
+        assertEquals(31, hotAccount.getContended());
+        assertEquals(30, hotAccount.getConflicts());
+        assertEquals(1, hotAccount.getRejected());
+        assertEquals(31, report.getContended());
+        assertEquals(1, report.getWaits().getCount());
+    }
+
+    @Test
+    @DisplayName("경합이 아닌 대기는 전체 분포에만 남는다")
+    void uncontended() {
+        //given
+        lockContentionProfiler.recordAcquired("1000000001", TimeUnit.MICROSECONDS.toNanos(10));
+        //when
+        LockContentionReport report = lockContentionProfiler.report(10);
+        //then
+        assertEquals(1, report.getWaits().getCount());
+        assertEquals(0, report.getContended());
+        assertTrue(report.getHotAccounts().isEmpty());
+    }
+
+    @Test
+    @DisplayName("counter 가 가득 차면 가장 작은 counter 를 넘겨받고 오차를 남긴다")
+    void spaceSaving() {
+        //given
+        long wait = TimeUnit.MILLISECONDS.toNanos(5);
+        for (int i = 0; i < 1000; i++) {
+            lockContentionProfiler.recordAcquired("1000000001", wait);
+        }
+        //드물게 경합하는 계좌가 많다.
+        for (int i = 0; i < 100; i++) {
+            lockContentionProfiler.recordAcquired(String.valueOf(2000000000L + i), wait);
+        }
+        //when
+        LockContentionReport report = lockContentionProfiler.report(10);
+        //then
+        assertEquals(3, report.getHotAccounts().size());
+        LockContentionReport.HotAccount top = report.getHotAccounts().get(0);
+        assertEquals("1000000001", top.getAccountNumber());
+        assertEquals(1000, top.getContended());
+        assertEquals(0, top.getError());
+        assertTrue(report.getHotAccounts().stream()
+                .skip(1)
+                .allMatch(hotAccount -> hotAccount.getContended() - hotAccount.getError() <= 1));
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.domain.Account;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class LockFencingTest {
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RAtomicLong rAtomicLong;
+
+    private LockFencing lockFencing;
+
+    @BeforeEach
+    void setUp() {
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getLock().getLease().setFencing(true);
+        lockFencing = new LockFencing(redissonClient, accountProperties, new SimpleMeterRegistry());
+        given(redissonClient.getAtomicLong(anyString())).willReturn(rAtomicLong);
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        lockFencing.clear("1000000000");
+        TransactionSynchronizationManager.clearSynchronization();
+    }
+
+    @Test
+    @DisplayName("더 큰 토큰은 커밋 직전에 계좌에 기록한다")
+    void recordToken() {
+        //given
+        Account account = Account.builder().accountNumber("1000000000").lockToken(6L).build();
+        given(rAtomicLong.incrementAndGet()).willReturn(7L);
+        lockFencing.issue("1000000000");
+        //when
+        lockFencing.fenceBeforeCommit(account);
+        beforeCommit();
+        //then
+        assertEquals(7L, account.getLockToken());
+    }
+
+    @Test
+    @DisplayName("만료된 잠금 보유자의 작은 토큰은 거절하고 Redis 카운터를 따라잡는다")
+    void rejectStaleToken() {
+        //given
+        Account account = Account.builder().accountNumber("1000000000").lockToken(9L).build();
+        given(rAtomicLong.incrementAndGet()).willReturn(7L);
+        given(rAtomicLong.get()).willReturn(7L);
+        given(rAtomicLong.compareAndSet(7L, 9L)).willReturn(true);
+        lockFencing.issue("1000000000");
+        lockFencing.fenceBeforeCommit(account);
+        //when
+        AccountException exception = assertThrows(AccountException.class, this::beforeCommit);
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertEquals(9L, account.getLockToken());
+        verify(rAtomicLong, times(1)).compareAndSet(7L, 9L);
+    }
+
+    @Test
+    @DisplayName("다른 스레드에서 커밋하는 묶음도 넘겨받은 토큰이 작으면 커밋 직전에 거절한다")
+    void rejectStaleTokenInBatchCommit() {
+        //given
+        Account account = Account.builder().accountNumber("1000000000").lockToken(9L).build();
+        given(rAtomicLong.get()).willReturn(9L);
+        //when
+        lockFencing.fenceBeforeCommit(account, 7L);
+        AccountException exception = assertThrows(AccountException.class, this::beforeCommit);
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertNull(lockFencing.currentToken("1000000000"));
+        assertEquals(9L, account.getLockToken());
+    }
+
+    private void beforeCommit() {
+        for (TransactionSynchronization synchronization :
+                TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.beforeCommit(false);
+        }
+    }
+}
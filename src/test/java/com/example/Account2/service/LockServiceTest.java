@@ -1,18 +1,31 @@
 package com.example.Account2.service;
 
+import com.example.Account2.config.AccountProperties;
 import com.example.Account2.exception.AccountException;
 import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -22,6 +35,18 @@ class LockServiceTest {
     @Mock
     private RLock rLock;
 
+    @Mock
+    private LockContentionProfiler lockContentionProfiler;
+
+    @Mock
+    private LockFencing lockFencing;
+
+    @Spy
+    private AccountProperties accountProperties = new AccountProperties();
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private LockService lockService;
 
@@ -50,6 +75,242 @@ class LockServiceTest {
                 ()->lockService.lock("123"));
         //then
         assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        verify(lockContentionProfiler, times(1)).recordRejected(eq("123"), anyLong());
+        assertEquals(1.0, meterRegistry.get("account.lock.failures")
+                .tag("tier", "remote")
+                .tag("reason", "timeout")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("Redis 오류는 timeout 과 구분해서 센다")
+    void countRedisError() throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("connection refused"));
+        //when
+        lockService.lock("123");
+        lockService.unlock("123");
+        //then
+        assertEquals(1.0, meterRegistry.get("account.lock.failures")
+                .tag("tier", "remote")
+                .tag("reason", "redis_error")
+                .counter().count());
+        assertEquals(1L, meterRegistry.get("account.lock.hold").timer().count());
+    }
+
+    @Test
+    @DisplayName("Redis 오류로 잠금 없이 진행했으면 unlock 은 Redis 해제를 건너뜀")
+    void unlockSkipsRedisAfterFailOpen() throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new IllegalStateException("connection refused"));
+        lockService.lock("123");
+        //when
+        assertDoesNotThrow(() -> lockService.unlock("123"));
+        //then
+        verify(rLock, never()).unlock();
+        assertEquals(1L, meterRegistry.get("account.lock.hold").timer().count());
+    }
+
+    @Test
+    @DisplayName("같은 JVM 의 대기자는 Redis 잠금을 시도하지 않음")
+    void localWaiterDoesNotReachRedis() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        lockService.lock("123");
+        //when
+        AccountException accountException = CompletableFuture.supplyAsync(() ->
+                assertThrows(AccountException.class, () -> lockService.lock("123"))
+        ).get();
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        verify(rLock, times(1)).tryLock(anyLong(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Redis 잠금 해제가 실패해도 JVM 잠금은 해제")
+    void unlockLocalEvenIfRedisUnlockThrows() throws Exception {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(rLock.isHeldByCurrentThread())
+                .willReturn(true);
+        willThrow(new IllegalMonitorStateException())
+                .given(rLock).unlock();
+        lockService.lock("123");
+        //when
+        assertThrows(IllegalMonitorStateException.class, () -> lockService.unlock("123"));
+        //then
+        CompletableFuture.runAsync(() ->
+                assertDoesNotThrow(() -> lockService.lock("123"))
+        ).get();
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("계좌 대기자가 maxQueueDepth 를 넘으면 기다리지 않고 거절")
+    void rejectWhenQueueIsFull() throws Exception {
+        //given
+        accountProperties.getLock().setMaxQueueDepth(1);
+        LockService boundedLockService = new LockService(redissonClient, accountProperties,
+                meterRegistry, lockContentionProfiler, lockFencing);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        boundedLockService.lock("123");
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() ->
+                assertThrows(AccountException.class,
+                        () -> boundedLockService.lock("123", 500L, 15000L)));
+        Thread.sleep(100);
+        //when
+        long startedAt = System.nanoTime();
+        AccountException accountException = CompletableFuture.supplyAsync(() ->
+                assertThrows(AccountException.class,
+                        () -> boundedLockService.lock("123", 500L, 15000L))
+        ).get();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        assertTrue(elapsedMillis < 300, "elapsed : " + elapsedMillis);
+        assertEquals(1.0, meterRegistry.get("account.lock.failures")
+                .tag("tier", "local")
+                .tag("reason", "queue_full")
+                .counter().count());
+        waiter.get();
+    }
+
+    @Test
+    @DisplayName("같은 stripe 의 다른 계좌는 대기열이 찼다고 거절하지 않음")
+    void otherAccountOnSaturatedStripeIsNotRejected() throws Exception {
+        //given
+        accountProperties.getLock().setStripes(1);
+        accountProperties.getLock().setMaxQueueDepth(1);
+        LockService boundedLockService = new LockService(redissonClient, accountProperties,
+                meterRegistry, lockContentionProfiler, lockFencing);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        boundedLockService.lock("123");
+        CompletableFuture<Void> waiter = CompletableFuture.runAsync(() ->
+                assertThrows(AccountException.class,
+                        () -> boundedLockService.lock("123", 150L, 15000L)));
+        Thread.sleep(50);
+        //when
+        CompletableFuture<Void> other = CompletableFuture.runAsync(() ->
+                assertDoesNotThrow(() -> boundedLockService.lock("456", 2000L, 15000L)));
+        //"123" 의 대기자가 시간 초과로 빠진 뒤 해제한다.
+        Thread.sleep(250);
+        boundedLockService.unlock("123");
+        other.get();
+        //then
+        assertNull(meterRegistry.find("account.lock.failures")
+                .tag("reason", "queue_full")
+                .counter());
+        waiter.get();
+    }
+
+    @Test
+    @DisplayName("fair 모드는 Redis RFairLock 을 쓴다")
+    void fairLock() throws InterruptedException {
+        //given
+        accountProperties.getLock().setFair(true);
+        LockService fairLockService = new LockService(redissonClient, accountProperties,
+                meterRegistry, lockContentionProfiler, lockFencing);
+        given(redissonClient.getFairLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(rLock.isHeldByCurrentThread())
+                .willReturn(true);
+        //when
+        fairLockService.lock("123", 3000L, 5000L);
+        fairLockService.unlock("123");
+        //then
+        verify(rLock, times(1)).tryLock(eq(3000L), eq(5000L), eq(TimeUnit.MILLISECONDS));
+        verify(rLock, times(1)).unlock();
+        verify(redissonClient, never()).getLock(anyString());
+    }
+
+    @Test
+    @DisplayName("watchdog 모드는 leaseTime 대신 -1 로 잠그고 fencing token 을 받는다")
+    void watchdogLease() throws InterruptedException {
+        //given
+        accountProperties.getLock().getLease().setWatchdog(true);
+        LockService watchdogLockService = new LockService(redissonClient, accountProperties,
+                meterRegistry, lockContentionProfiler, lockFencing);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        //when
+        watchdogLockService.lock("123", 1000L, 15000L);
+        watchdogLockService.unlock("123");
+        //then
+        verify(rLock, times(1)).tryLock(eq(1000L), eq(-1L), eq(TimeUnit.MILLISECONDS));
+        verify(lockFencing, times(1)).issue("123");
+        verify(lockFencing, times(1)).clear("123");
+    }
+
+    @Test
+    @DisplayName("fencing 모드에서 Redis 오류는 잠금 없이 진행하지 않고 거절")
+    void failClosedOnRedisErrorWithFencing() throws Exception {
+        //given
+        accountProperties.getLock().getLease().setFencing(true);
+        LockService fencingLockService = new LockService(redissonClient, accountProperties,
+                meterRegistry, lockContentionProfiler, lockFencing);
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willReturn(true);
+        given(rLock.isHeldByCurrentThread())
+                .willReturn(true);
+        willThrow(new IllegalStateException("connection refused"))
+                .given(lockFencing).issue("123");
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> fencingLockService.lock("123"));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        verify(rLock, times(1)).unlock();
+        assertEquals(1.0, meterRegistry.get("account.lock.failures")
+                .tag("tier", "remote")
+                .tag("reason", "redis_error")
+                .counter().count());
+        //JVM 잠금도 해제되어 다른 스레드가 바로 잠글 수 있다.
+        willDoNothing().given(lockFencing).issue("123");
+        CompletableFuture.runAsync(() ->
+                assertDoesNotThrow(() -> fencingLockService.lock("123"))
+        ).get();
+    }
+
+    @Test
+    @DisplayName("Redis 잠금 대기 중 인터럽트는 interrupted 로 세고 인터럽트 상태를 되살림")
+    void interruptedWhileWaitingForRedis() throws InterruptedException {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLock(anyLong(), anyLong(), any()))
+                .willThrow(new InterruptedException());
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> lockService.lock("123"));
+        //then
+        assertTrue(Thread.interrupted());
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        assertEquals(1.0, meterRegistry.get("account.lock.failures")
+                .tag("tier", "remote")
+                .tag("reason", "interrupted")
+                .counter().count());
+    }
+}
@@ -0,0 +1,125 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.BalanceStrategy;
+import com.example.Account2.type.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class OptimisticRetryAspectTest {
+    @Spy
+    private AccountProperties accountProperties = new AccountProperties();
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    @Mock
+    private LockContentionProfiler lockContentionProfiler;
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+    @Mock
+    private MethodSignature methodSignature;
+    @InjectMocks
+    private OptimisticRetryAspect optimisticRetryAspect;
+
+    @BeforeEach
+    void setUp() {
+        accountProperties.getBalance().setStrategy(BalanceStrategy.OPTIMISTIC);
+        accountProperties.getBalance().getOptimistic().setMaxAttempts(3);
+        accountProperties.getBalance().getOptimistic().setInitialBackoff(Duration.ofMillis(1));
+    }
+
+    @Test
+    @DisplayName("버전 충돌 후 재시도 성공")
+    void retryOnConflict() throws Throwable {
+        //given
+        givenUseBalanceSignature();
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L))
+                .willReturn("result");
+        //when
+        Object result = optimisticRetryAspect.aroundMethod(proceedingJoinPoint);
+        //then
+        assertEquals("result", result);
+        verify(proceedingJoinPoint, times(2)).proceed();
+        assertEquals(1.0, meterRegistry.get("account.balance.optimistic.conflicts")
+                .counter().count());
+        assertTrue(meterRegistry.get("account.balance.optimistic.conflicts")
+                .counter().getId().getTags().isEmpty());
+        verify(lockContentionProfiler, times(1)).recordConflict("1000000000");
+    }
+
+    @Test
+    @DisplayName("재시도 횟수 초과 - 계좌 사용중")
+    void retryExhausted() throws Throwable {
+        //given
+        givenUseBalanceSignature();
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> optimisticRetryAspect.aroundMethod(proceedingJoinPoint));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        verify(proceedingJoinPoint, times(3)).proceed();
+    }
+
+    @Test
+    @DisplayName("다른 전략에서는 재시도 없음")
+    void noRetry_redisLock() throws Throwable {
+        //given
+        accountProperties.getBalance().setStrategy(BalanceStrategy.REDIS_LOCK);
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+        //when
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> optimisticRetryAspect.aroundMethod(proceedingJoinPoint));
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    @Test
+    @DisplayName("재시도 대기 중 인터럽트 - 계좌 사용중, 인터럽트 상태 유지")
+    void interruptedWhileBackingOff() throws Throwable {
+        //given
+        givenUseBalanceSignature();
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new ObjectOptimisticLockingFailureException("Account", 1L));
+        Thread.currentThread().interrupt();
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> optimisticRetryAspect.aroundMethod(proceedingJoinPoint));
+        boolean interrupted = Thread.interrupted();
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, accountException.getErrorCode());
+        assertTrue(interrupted);
+        verify(proceedingJoinPoint, times(1)).proceed();
+    }
+
+    private void givenUseBalanceSignature() {
+        given(proceedingJoinPoint.getSignature())
+                .willReturn(methodSignature);
+        given(methodSignature.getParameterNames())
+                .willReturn(new String[]{"userId", "accountNumber", "amount"});
+        given(proceedingJoinPoint.getArgs())
+                .willReturn(new Object[]{1L, "1000000000", 1000L});
+    }
+}
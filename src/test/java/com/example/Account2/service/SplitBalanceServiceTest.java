@@ -0,0 +1,116 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.domain.Account;
+import com.example.Account2.domain.AccountSubBalance;
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.AccountSubBalanceRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class SplitBalanceServiceTest {
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private AccountSubBalanceRepository accountSubBalanceRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SplitBalanceService splitBalanceService;
+
+    private final Account account = Account.builder()
+            .id(1L)
+            .accountNumber("1000000000")
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getBalance().getSplitBalance().setSlots(4);
+        splitBalanceService = new SplitBalanceService(accountRepository,
+                accountSubBalanceRepository, accountProperties, transactionManager);
+    }
+
+    @Test
+    @DisplayName("슬롯 행이 없으면 한 번만 만든다")
+    void provisionOnce() {
+        //given
+        given(accountSubBalanceRepository.findSlotsByAccountId(1L))
+                .willReturn(List.of(0));
+        //when
+        splitBalanceService.credit(account, 1000L);
+        splitBalanceService.credit(account, 1000L);
+        //then
+        verify(accountSubBalanceRepository, times(1)).findSlotsByAccountId(1L);
+        verify(accountSubBalanceRepository, times(3)).save(any(AccountSubBalance.class));
+        verify(accountSubBalanceRepository, times(2)).credit(eq(1L), anyInt(), eq(1000L));
+    }
+
+    @Test
+    @DisplayName("슬롯에서 차감되면 본 잔액은 건드리지 않는다")
+    void debitFromSlot() {
+        //given
+        given(accountSubBalanceRepository.debit(anyLong(), anyInt(), anyLong()))
+                .willReturn(1);
+        //when
+        boolean debited = splitBalanceService.debit(account, 12L, 1000L);
+        //then
+        assertTrue(debited);
+        verify(accountSubBalanceRepository, times(1)).debit(anyLong(), anyInt(), anyLong());
+        verify(accountRepository, never()).useBalance(anyLong(), anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("슬롯이 모두 모자라면 슬롯 잔액을 본 잔액으로 모은 뒤 차감")
+    void debitAfterConsolidation() {
+        //given
+        given(accountSubBalanceRepository.debit(anyLong(), anyInt(), anyLong()))
+                .willAnswer(invocation -> {
+                    int slot = invocation.getArgument(1);
+                    long amount = invocation.getArgument(2);
+                    //슬롯 통째로 옮기는 차감만 성공
+                    return (slot == 2 && amount == 600L) || (slot == 3 && amount == 700L) ? 1 : 0;
+                });
+        given(accountRepository.useBalance(12L, "1000000000", 1000L))
+                .willReturn(0, 1);
+        given(accountSubBalanceRepository.findNonEmptyByAccountId(1L))
+                .willReturn(List.of(
+                        AccountSubBalance.builder().slot(2).balance(600L).build(),
+                        AccountSubBalance.builder().slot(3).balance(700L).build()));
+        //when
+        boolean debited = splitBalanceService.debit(account, 12L, 1000L);
+        //then
+        assertTrue(debited);
+        verify(accountRepository, times(1)).cancelBalance("1000000000", 1300L);
+        verify(accountRepository, times(2)).useBalance(12L, "1000000000", 1000L);
+    }
+
+    @Test
+    @DisplayName("합계 잔액도 모자라면 실패")
+    void debitFailed() {
+        //given
+        given(accountSubBalanceRepository.findNonEmptyByAccountId(1L))
+                .willReturn(List.of());
+        //when
+        boolean debited = splitBalanceService.debit(account, 12L, 1000L);
+        //then
+        assertFalse(debited);
+        verify(accountRepository, times(1)).useBalance(12L, "1000000000", 1000L);
+        verify(accountRepository, never()).cancelBalance(anyString(), anyLong());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.Account2.service;
+
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.dto.UseBalance;
+import com.example.Account2.dto.UseBalanceBatch;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import com.example.Account2.type.TransactionResultType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+    @Mock
+    private TransactionService transactionService;
+    @Mock
+    private LockService lockService;
+    @Mock
+    private SplitBalanceService splitBalanceService;
+    @Mock
+    private FailedTransactionRecorder failedTransactionRecorder;
+    @Mock
+    private AccountActorEngine accountActorEngine;
+    @InjectMocks
+    private TransactionBatchService transactionBatchService;
+
+    @Test
+    @DisplayName("계좌별로 묶어 잠금은 한 번만, 결과는 요청 순서")
+    void groupByAccount() {
+        //given
+        UseBalance.Request first = new UseBalance.Request(1L, "1000000000", 1000L);
+        UseBalance.Request second = new UseBalance.Request(2L, "2000000000", 2000L);
+        UseBalance.Request third = new UseBalance.Request(1L, "1000000000", 3000L);
+        given(transactionService.useBalanceGroup(eq("1000000000"), anyList()))
+                .willReturn(List.of(success(first), success(third)));
+        given(transactionService.useBalanceGroup(eq("2000000000"), anyList()))
+                .willReturn(List.of(success(second)));
+        //when
+        List<UseBalanceBatch.Result> results =
+                transactionBatchService.useBalances(List.of(first, second, third));
+        //then
+        verify(lockService, times(1)).lock("1000000000");
+        verify(lockService, times(1)).unlock("1000000000");
+        verify(transactionService, times(1)).useBalanceGroup("1000000000", List.of(first, third));
+        assertEquals(1000L, results.get(0).getAmount());
+        assertEquals(2000L, results.get(1).getAmount());
+        assertEquals(3000L, results.get(2).getAmount());
+    }
+
+    @Test
+    @DisplayName("잠금 실패 - 해당 계좌 항목만 실패, 거래 기록 없음")
+    void lockFailed() {
+        //given
+        UseBalance.Request first = new UseBalance.Request(1L, "1000000000", 1000L);
+        UseBalance.Request second = new UseBalance.Request(2L, "2000000000", 2000L);
+        willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock("1000000000");
+        given(transactionService.useBalanceGroup(eq("2000000000"), anyList()))
+                .willReturn(List.of(success(second)));
+        //when
+        List<UseBalanceBatch.Result> results =
+                transactionBatchService.useBalances(List.of(first, second));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, results.get(0).getErrorCode());
+        assertEquals(TransactionResultType.F, results.get(0).getTransactionResult());
+        assertEquals(TransactionResultType.S, results.get(1).getTransactionResult());
+        verify(lockService, times(0)).unlock("1000000000");
+        verify(failedTransactionRecorder, times(0)).recordUse(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("계좌 단위 실패 - 항목마다 실패 거래 기록")
+    void groupFailed() {
+        //given
+        UseBalance.Request first = new UseBalance.Request(1L, "1000000000", 1000L);
+        UseBalance.Request second = new UseBalance.Request(1L, "1000000000", 2000L);
+        given(transactionService.useBalanceGroup(anyString(), anyList()))
+                .willThrow(new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        //when
+        List<UseBalanceBatch.Result> results =
+                transactionBatchService.useBalances(List.of(first, second));
+        //then
+        assertEquals(2, results.size());
+        verify(failedTransactionRecorder, times(1)).recordUse("1000000000", 1000L);
+        verify(failedTransactionRecorder, times(1)).recordUse("1000000000", 2000L);
+        verify(lockService, times(1)).unlock("1000000000");
+    }
+
+    @Test
+    @DisplayName("actor 전략 - 잠금 없이 엔진에 항목마다 넣고 결과는 요청 순서")
+    void actor() {
+        //given
+        UseBalance.Request first = new UseBalance.Request(1L, "1000000000", 1000L);
+        UseBalance.Request second = new UseBalance.Request(1L, "1000000000", 5000L);
+        given(accountActorEngine.handles("1000000000"))
+                .willReturn(true);
+        given(accountActorEngine.useBalance(1L, "1000000000", 1000L))
+                .willReturn(CompletableFuture.completedFuture(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(1000L)
+                        .build()));
+        given(accountActorEngine.useBalance(1L, "1000000000", 5000L))
+                .willReturn(CompletableFuture.failedFuture(
+                        new AccountException(ErrorCode.AMOUNT_EXCEED_BALANCE)));
+        //when
+        List<UseBalanceBatch.Result> results =
+                transactionBatchService.useBalances(List.of(first, second));
+        //then
+        assertEquals(TransactionResultType.S, results.get(0).getTransactionResult());
+        assertEquals(1000L, results.get(0).getAmount());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+        verify(transactionService, never()).useBalanceGroup(anyString(), anyList());
+        verify(lockService, never()).lock(anyString());
+        verify(failedTransactionRecorder, never()).recordUse(anyString(), anyLong());
+    }
+
+    private static UseBalanceBatch.Result success(UseBalance.Request request) {
+        return UseBalanceBatch.Result.builder()
+                .accountNumber(request.getAccountNumber())
+                .transactionResult(TransactionResultType.S)
+                .amount(request.getAmount())
+                .build();
+    }
+}
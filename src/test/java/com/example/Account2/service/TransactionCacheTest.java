@@ -0,0 +1,114 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionCacheTest {
+    @Mock
+    private RedissonClient redissonClient;
+    @Mock
+    private RBucket<TransactionDto> rBucket;
+
+    private SimpleMeterRegistry meterRegistry;
+    private TransactionCache transactionCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        transactionCache = new TransactionCache(redissonClient, new ObjectMapper(),
+                new AccountProperties(), meterRegistry);
+        given(redissonClient.<TransactionDto>getBucket(anyString(), any(Codec.class)))
+                .willReturn(rBucket);
+    }
+
+    @Test
+    @DisplayName("L1 캐시 적중 시 DB 조회 없음")
+    void localHit() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        //when
+        transactionCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return TransactionDto.builder().accountNumber("1000000000").build();
+        });
+        TransactionDto transactionDto = transactionCache.get(1L, id -> {
+            loads.incrementAndGet();
+            return null;
+        });
+        //then
+        assertEquals(1, loads.get());
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        verify(rBucket, times(1)).setAsync(any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("L2 캐시 적중 시 DB 조회 없음")
+    void remoteHit() {
+        //given
+        given(rBucket.get())
+                .willReturn(TransactionDto.builder().accountNumber("1000000000").build());
+        //when
+        TransactionDto transactionDto = transactionCache.get(1L, id -> {
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        });
+        //then
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        assertEquals(1.0, meterRegistry.get("cache.gets")
+                .tag("cache", "transaction-l2")
+                .tag("result", "hit")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("없는 거래는 캐시하지 않음")
+    void notFoundIsNotCached() {
+        //given
+        AtomicInteger loads = new AtomicInteger();
+        //when
+        for (int i = 0; i < 2; i++) {
+            assertThrows(AccountException.class, () -> transactionCache.get(1L, id -> {
+                loads.incrementAndGet();
+                throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+            }));
+        }
+        //then
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("기록한 거래는 조회 전에 캐시됨")
+    void populatedOnWrite() {
+        //given
+        transactionCache.putAfterCommit(1L,
+                TransactionDto.builder().accountNumber("1000000000").build());
+        //when
+        TransactionDto transactionDto = transactionCache.get(1L, id -> {
+            throw new AccountException(ErrorCode.TRANSACTION_NOT_FOUND);
+        });
+        //then
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        verify(rBucket, times(0)).get();
+    }
+}
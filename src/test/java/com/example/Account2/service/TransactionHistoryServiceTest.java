@@ -0,0 +1,129 @@
+package com.example.Account2.service;
+
+import com.example.Account2.domain.Account;
+import com.example.Account2.dto.TransactionHistory;
+import com.example.Account2.dto.TransactionHistoryRow;
+import com.example.Account2.exception.AccountException;
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.TransactionRepository;
+import com.example.Account2.type.ErrorCode;
+import com.example.Account2.type.TransactionResultType;
+import com.example.Account2.type.TransactionType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionHistoryServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 1, 12, 0, 0, 123_000_000);
+
+    @Mock
+    private AccountRepository accountRepository;
+    @Mock
+    private TransactionRepository transactionRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private TransactionHistoryService transactionHistoryService;
+
+    @BeforeEach
+    void setUp() {
+        transactionHistoryService = new TransactionHistoryService(accountRepository,
+                transactionRepository, objectMapper, transactionManager);
+    }
+
+    @Test
+    @DisplayName("size 건만 쓰고, 더 있으면 마지막 거래로 nextCursor")
+    void firstPage() throws Exception {
+        //given
+        given(accountRepository.findByAccountNumber("1000000000"))
+                .willReturn(Optional.of(Account.builder().id(1L).build()));
+        given(transactionRepository.streamHistory(1L, PageRequest.of(0, 3)))
+                .willReturn(Stream.of(row(30L), row(20L), row(10L)));
+        //when
+        TransactionHistory.Query query = transactionHistoryService.prepare("1000000000", null, 2);
+        JsonNode response = write(query);
+        //then
+        assertEquals("1000000000", response.get("accountNumber").asText());
+        assertEquals(2, response.get("items").size());
+        assertEquals(1000L, response.get("items").get(0).get("amount").asLong());
+        TransactionHistory.Cursor cursor =
+                TransactionHistory.Cursor.decode(response.get("nextCursor").asText());
+        assertEquals(20L, cursor.id());
+        assertEquals(NOW.minusSeconds(20), cursor.transactedAt());
+    }
+
+    @Test
+    @DisplayName("커서 다음부터 조회, 마지막 페이지는 nextCursor 없음")
+    void lastPage() throws Exception {
+        //given
+        given(accountRepository.findByAccountNumber("1000000000"))
+                .willReturn(Optional.of(Account.builder().id(1L).build()));
+        String cursor = new TransactionHistory.Cursor(NOW.minusSeconds(20), 20L).encode();
+        given(transactionRepository.streamHistoryBefore(1L, NOW.minusSeconds(20), 20L,
+                PageRequest.of(0, 3)))
+                .willReturn(Stream.of(row(10L)));
+        //when
+        TransactionHistory.Query query = transactionHistoryService.prepare("1000000000", cursor, 2);
+        JsonNode response = write(query);
+        //then
+        assertEquals(1, response.get("items").size());
+        assertTrue(response.get("nextCursor").isNull());
+    }
+
+    @Test
+    @DisplayName("잘못된 커서나 크기 - 응답을 쓰기 전에 실패")
+    void invalidRequest() {
+        //given
+        //when
+        AccountException invalidCursor = assertThrows(AccountException.class,
+                () -> transactionHistoryService.prepare("1000000000", "not-a-cursor", 10));
+        AccountException invalidSize = assertThrows(AccountException.class,
+                () -> transactionHistoryService.prepare("1000000000", null,
+                        TransactionHistory.MAX_SIZE + 1));
+        //then
+        assertEquals(ErrorCode.INVALID_REQUEST, invalidCursor.getErrorCode());
+        assertEquals(ErrorCode.INVALID_REQUEST, invalidSize.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 없음")
+    void accountNotFound() {
+        //given
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionHistoryService.prepare("1000000000", null, 10));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, accountException.getErrorCode());
+    }
+
+    private JsonNode write(TransactionHistory.Query query) throws Exception {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        transactionHistoryService.write(query, outputStream);
+        return objectMapper.readTree(outputStream.toByteArray());
+    }
+
+    private static TransactionHistoryRow row(long id) {
+        return new TransactionHistoryRow(id, 1_000_000L + id, TransactionType.USE,
+                TransactionResultType.S, 1000L, 9000L, NOW.minusSeconds(id));
+    }
+}
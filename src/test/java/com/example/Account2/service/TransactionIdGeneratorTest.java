@@ -0,0 +1,94 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.dto.TransactionIdFormat;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionIdGeneratorTest {
+
+    @Test
+    @DisplayName("거래 번호는 단조 증가")
+    void monotonic() {
+        //given
+        TransactionIdGenerator transactionIdGenerator = newGenerator(7);
+        //when
+        long previous = transactionIdGenerator.nextId();
+        //then
+        for (int i = 0; i < 100_000; i++) {
+            long next = transactionIdGenerator.nextId();
+            assertTrue(next > previous);
+            previous = next;
+        }
+    }
+
+    @Test
+    @DisplayName("거래 번호에 노드 번호 포함")
+    void containsNodeId() {
+        //given
+        TransactionIdGenerator transactionIdGenerator = newGenerator(513);
+        //when
+        long transactionId = transactionIdGenerator.nextId();
+        //then
+        assertEquals(513, (transactionId >>> TransactionIdGenerator.SEQUENCE_BITS)
+                & TransactionIdGenerator.MAX_NODE_ID);
+    }
+
+    @Test
+    @DisplayName("노드 번호 범위 초과")
+    void invalidNodeId() {
+        assertThrows(IllegalStateException.class, () -> newGenerator(1024));
+    }
+
+    @Test
+    @DisplayName("동시 발급 시 중복 없음")
+    void concurrentUnique() throws Exception {
+        //given
+        TransactionIdGenerator transactionIdGenerator = newGenerator(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(16);
+        Set<Long> transactionIds = ConcurrentHashMap.newKeySet();
+        List<Future<?>> futures = new ArrayList<>();
+        //when
+        for (int i = 0; i < 16; i++) {
+            futures.add(executorService.submit(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    transactionIds.add(transactionIdGenerator.nextId());
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get(10, TimeUnit.SECONDS);
+        }
+        executorService.shutdown();
+        //then
+        assertEquals(160_000, transactionIds.size());
+    }
+
+    @Test
+    @DisplayName("API 표현 변환 후 복원")
+    void formatAndParse() {
+        //given
+        long transactionId = newGenerator(3).nextId();
+        //when
+        String text = TransactionIdFormat.format(transactionId);
+        //then
+        assertEquals(13, text.length());
+        assertEquals(transactionId, TransactionIdFormat.parse(text));
+        assertEquals(transactionId, TransactionIdFormat.parse(text.toLowerCase()));
+        assertThrows(IllegalArgumentException.class,
+                () -> TransactionIdFormat.parse("invalid-id"));
+    }
+
+    private static TransactionIdGenerator newGenerator(int nodeId) {
+        AccountProperties accountProperties = new AccountProperties();
+        accountProperties.getTransactionId().setNodeId(nodeId);
+        return new TransactionIdGenerator(accountProperties);
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.Account2.service;
+
+import com.example.Account2.config.AccountProperties;
+import com.example.Account2.domain.Account;
+import com.example.Account2.domain.Transaction;
+import com.example.Account2.repository.AccountRepository;
+import com.example.Account2.repository.TransactionRepository;
+import com.example.Account2.type.TransactionResultType;
+import com.example.Account2.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class TransactionJournalTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("기록한 순서대로 읽고, 세그먼트가 차면 다음 세그먼트로 넘어감")
+    void appendAndRead() throws IOException {
+        //given
+        TransactionJournal journal = open(3);
+        //when
+        for (long i = 1; i <= 10; i++) {
+            journal.append(record(i));
+        }
+        journal.close();
+        //then
+        List<JournalRecord> records = readAll();
+        assertEquals(10, records.size());
+        for (int i = 0; i < records.size(); i++) {
+            assertEquals(record(i + 1), records.get(i));
+        }
+        assertEquals(4, segments().size());
+    }
+
+    @Test
+    @DisplayName("재시작하면 마지막 레코드 뒤부터 이어서 기록")
+    void reopen() {
+        //given
+        TransactionJournal journal = open(100);
+        journal.append(record(1));
+        journal.append(record(2));
+        journal.close();
+        //when
+        TransactionJournal reopened = open(100);
+        reopened.append(record(3));
+        reopened.close();
+        //then
+        assertEquals(List.of(record(1), record(2), record(3)), readAll());
+    }
+
+    @Test
+    @DisplayName("마지막 세그먼트의 쓰다 만 레코드는 무시하고 덮어씀")
+    void tornTail() throws IOException {
+        //given
+        TransactionJournal journal = open(100);
+        journal.append(record(1));
+        journal.append(record(2));
+        journal.close();
+        corrupt(segments().get(0), TransactionJournal.HEADER_SIZE + JournalRecord.RECORD_SIZE + 20);
+        //when
+        List<JournalRecord> beforeReopen = readAll();
+        TransactionJournal reopened = open(100);
+        reopened.append(record(3));
+        reopened.close();
+        //then
+        assertEquals(List.of(record(1)), beforeReopen);
+        assertEquals(List.of(record(1), record(3)), readAll());
+    }
+
+    @Test
+    @DisplayName("앞 세그먼트가 손상되면 재생 실패")
+    void corruptedSegment() throws IOException {
+        //given
+        TransactionJournal journal = open(3);
+        for (long i = 1; i <= 5; i++) {
+            journal.append(record(i));
+        }
+        journal.close();
+        corrupt(segments().get(0), TransactionJournal.HEADER_SIZE + 20);
+        //when
+        //then
+        assertThrows(IllegalStateException.class, this::readAll);
+    }
+
+    @Test
+    @DisplayName("커밋 후 기록이 실패하면 누락을 남기고 unhealthy, 재시작해도 유지되며 재생은 거부")
+    void appendFailureMarksGap() {
+        //given
+        TransactionJournal journal = open(3);
+        //계좌번호가 없어 기록 중에 실패하는 거래
+        Transaction transaction = Transaction.builder()
+                .transactionId(7L)
+                .account(Account.builder().id(1L).build())
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSanpshot(9000L)
+                .transactedAt(LocalDateTime.of(2024, 1, 1, 0, 0))
+                .build();
+        //when
+        journal.appendAfterCommit(transaction);
+        journal.close();
+        //then
+        assertFalse(journal.isHealthy());
+        assertTrue(TransactionJournal.hasGaps(directory));
+        assertFalse(open(3).isHealthy());
+        JournalReplayService replayService = new JournalReplayService(
+                mock(TransactionRepository.class), mock(AccountRepository.class),
+                mock(PlatformTransactionManager.class));
+        assertThrows(IllegalStateException.class, () -> replayService.replay(directory));
+    }
+
+    private TransactionJournal open(int recordsPerSegment) {
+        AccountProperties accountProperties = new AccountProperties();
+        AccountProperties.Journal properties = accountProperties.getJournal();
+        properties.setEnabled(true);
+        properties.setDirectory(directory.toString());
+        properties.setForce(false);
+        properties.setSegmentSize(DataSize.ofBytes(TransactionJournal.HEADER_SIZE
+                + (long) JournalRecord.RECORD_SIZE * recordsPerSegment));
+        return new TransactionJournal(accountProperties, new SimpleMeterRegistry());
+    }
+
+    private List<JournalRecord> readAll() {
+        List<JournalRecord> records = new ArrayList<>();
+        TransactionJournal.read(directory, records::add);
+        return records;
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void corrupt(Path segment, long position) throws IOException {
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            file.seek(position);
+            file.write(0x7F);
+        }
+    }
+
+    private static JournalRecord record(long transactionId) {
+        return new JournalRecord(transactionId, 1L, "1000000000",
+                transactionId % 2 == 0 ? TransactionType.CANCEL : TransactionType.USE,
+                TransactionResultType.S, 1000L, 10_000L,
+                LocalDateTime.of(2024, 1, 1, 0, 0).plus(transactionId, ChronoUnit.MILLIS));
+    }
+}
@@ -1,14 +1,19 @@
 package com.example.Account2.service;
 
+import com.example.Account2.config.AccountProperties;
 import com.example.Account2.domain.Account;
 import com.example.Account2.domain.AccountUser;
 import com.example.Account2.domain.Transaction;
 import com.example.Account2.dto.TransactionDto;
+import com.example.Account2.dto.TransactionIdFormat;
+import com.example.Account2.dto.UseBalance;
+import com.example.Account2.dto.UseBalanceBatch;
 import com.example.Account2.exception.AccountException;
 import com.example.Account2.repository.AccountRepository;
 import com.example.Account2.repository.AccountUserRepository;
 import com.example.Account2.repository.TransactionRepository;
 import com.example.Account2.type.AccountStatus;
+import com.example.Account2.type.BalanceStrategy;
 import com.example.Account2.type.ErrorCode;
 import com.example.Account2.type.TransactionResultType;
 import com.example.Account2.type.TransactionType;
@@ -18,14 +23,19 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -37,6 +47,20 @@ class TransactionServiceTest {
     private AccountRepository accountRepository;
     @Mock
     private AccountUserRepository accountUserRepository;
+    @Spy
+    private AccountProperties accountProperties = new AccountProperties();
+    @Mock
+    private TransactionIdGenerator transactionIdGenerator;
+    @Mock
+    private TransactionCache transactionCache;
+    @Mock
+    private AccountListCache accountListCache;
+    @Mock
+    private SplitBalanceService splitBalanceService;
+    @Mock
+    private TransactionJournal transactionJournal;
+    @Mock
+    private LockFencing lockFencing;
 
     @InjectMocks
     private TransactionService transactionService;
@@ -65,7 +89,7 @@ class TransactionServiceTest {
                         .transactionResultType(TransactionResultType.S)
                         .amount(1000L)
                         .balanceSanpshot(9000L)
-                        .transactionId("transactionId")
+                        .transactionId(1L)
                         .transactedAt(LocalDateTime.now())
                         .build());
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
@@ -80,6 +104,44 @@ class TransactionServiceTest {
         assertEquals(TransactionType.USE, transactionDto.getTransactionType());
         assertEquals(1000L, transactionDto.getAmount());
         assertEquals(9000L, transactionDto.getBalanceSanpshot());
+        verify(accountListCache, times(1)).evictAfterCommit(12L);
+    }
+
+    @Test
+    @DisplayName("분할 잔액 계좌 - 본 잔액이 부족해도 슬롯에서 차감, 스냅샷은 합계 잔액")
+    void useBalance_splitBalance() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(user)
+                .balance(0L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(splitBalanceService.isSplit("1000000012"))
+                .willReturn(true);
+        given(splitBalanceService.debit(account, 1L, 1000L))
+                .willReturn(true);
+        given(splitBalanceService.totalBalance(1L))
+                .willReturn(9000L);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(1L, "1000000012",
+                1000L);
+        //then
+        assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
+        assertEquals(9000L, transactionDto.getBalanceSanpshot());
+        assertEquals(0L, account.getBalance());
+        verify(accountRepository, never()).useBalance(anyLong(), anyString(), anyLong());
     }
 
     @Test
@@ -210,6 +272,36 @@ class TransactionServiceTest {
     }
 
 
+    @Test
+    @DisplayName("모인 실패 거래를 한 번에 저장, 없는 계좌는 건너뜀")
+    void saveFailedTransactions() {
+        //given
+        Account account = Account.builder()
+                .id(1L)
+                .balance(10000L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(accountRepository.findAllByAccountNumberIn(anyCollection()))
+                .willReturn(List.of(account));
+        given(transactionRepository.saveAll(anyList()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        LocalDateTime failedAt = LocalDateTime.now().minusSeconds(1);
+        ArgumentCaptor<List<Transaction>> captor = ArgumentCaptor.forClass(List.class);
+        //when
+        int saved = transactionService.saveFailedTransactions(List.of(
+                new FailedTransaction(TransactionType.USE, "1000000012", 1000L, failedAt),
+                new FailedTransaction(TransactionType.CANCEL, "9999999999", 2000L, failedAt)));
+        //then
+        verify(transactionRepository, times(1)).saveAll(captor.capture());
+        assertEquals(1, saved);
+        Transaction transaction = captor.getValue().get(0);
+        assertEquals(TransactionResultType.F, transaction.getTransactionResultType());
+        assertEquals(10000L, transaction.getBalanceSanpshot());
+        assertEquals(failedAt, transaction.getTransactedAt());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+    }
+
     @Test
     @DisplayName("잔액 사용 실패시 데이터 저장")
     void saveFailedUseBalance() {
@@ -233,7 +325,7 @@ class TransactionServiceTest {
                         .transactionResultType(TransactionResultType.S)
                         .amount(1000L)
                         .balanceSanpshot(9000L)
-                        .transactionId("transactionId")
+                        .transactionId(1L)
                         .transactedAt(LocalDateTime.now())
                         .build());
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
@@ -267,10 +359,10 @@ class TransactionServiceTest {
                 .transactionResultType(TransactionResultType.S)
                 .amount(1000L)
                 .balanceSanpshot(9000L)
-                .transactionId("transactionIdForCancel")
+                .transactionId(2L)
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -281,12 +373,12 @@ class TransactionServiceTest {
                         .transactionResultType(TransactionResultType.S)
                         .amount(1000L)
                         .balanceSanpshot(10000L)
-                        .transactionId("transactionId")
+                        .transactionId(1L)
                         .transactedAt(LocalDateTime.now())
                         .build());
         ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
         //when
-        TransactionDto transactionDto = transactionService.cancelBalance("transactionId", "1000000000",
+        TransactionDto transactionDto = transactionService.cancelBalance(TransactionIdFormat.format(1L), "1000000000",
                 1000L);
         //then
         verify(transactionRepository, times(1)).save(captor.capture());
@@ -303,12 +395,12 @@ class TransactionServiceTest {
     @DisplayName("해당 거래 없음 - 사용 취소 실패")
     void cancelBalance_TransactionNotFound() {
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.empty());
 
         //when
         AccountException accountException = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("testTransactionId","1000000000", 3214L));
+                () -> transactionService.cancelBalance(TransactionIdFormat.format(3L),"1000000000", 3214L));
 
         //then
         assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
@@ -320,14 +412,14 @@ class TransactionServiceTest {
     void cancelBalance_AccountNotFound() {
 
 
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(Transaction.builder().build()));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
 
         //when
         AccountException accountException = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionIdForCancel","1000000000", 3214L));
+                () -> transactionService.cancelBalance(TransactionIdFormat.format(2L),"1000000000", 3214L));
 
         //then
         assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, accountException.getErrorCode());
@@ -368,17 +460,17 @@ class TransactionServiceTest {
                 .transactionResultType(TransactionResultType.S)
                 .amount(1000L)
                 .balanceSanpshot(9000L)
-                .transactionId("transactionIdForCancel")
+                .transactionId(2L)
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(otherAccount));
 
         //when
         AccountException accountException = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionIdForCancel","1000000000", 3214L));
+                () -> transactionService.cancelBalance(TransactionIdFormat.format(2L),"1000000000", 3214L));
 
         //then
         assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UNMATCHED, accountException.getErrorCode());
@@ -407,17 +499,17 @@ class TransactionServiceTest {
                 .transactionResultType(TransactionResultType.S)
                 .amount(1000L)
                 .balanceSanpshot(9000L)
-                .transactionId("transactionIdForCancel")
+                .transactionId(2L)
                 .transactedAt(LocalDateTime.now())
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
 
         //when
         AccountException accountException = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionIdForCancel","1000000000", 3214L));
+                () -> transactionService.cancelBalance(TransactionIdFormat.format(2L),"1000000000", 3214L));
 
         //then
         assertEquals(ErrorCode.CANCEL_MUST_FULLY, accountException.getErrorCode());
@@ -446,17 +538,17 @@ class TransactionServiceTest {
                 .transactionResultType(TransactionResultType.S)
                 .amount(3214L)
                 .balanceSanpshot(9000L)
-                .transactionId("transactionIdForCancel")
+                .transactionId(2L)
                 .transactedAt(LocalDateTime.now().minusYears(2L))
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findByTransactionId(anyLong()))
                 .willReturn(Optional.of(transaction));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
 
         //when
         AccountException accountException = assertThrows(AccountException.class,
-                () -> transactionService.cancelBalance("transactionIdForCancel","1000000000", 3214L));
+                () -> transactionService.cancelBalance(TransactionIdFormat.format(2L),"1000000000", 3214L));
 
         //then
         assertEquals(ErrorCode.TOO_OLD_ORDER_TO_CANCEL, accountException.getErrorCode());
@@ -465,54 +557,376 @@ class TransactionServiceTest {
     @Test
     void queryTransaction_Success() {
         //given
+        givenCacheMiss();
+        given(transactionRepository.findDtoByTransactionId(anyLong()))
+                .willReturn(Optional.of(new TransactionDto(
+                        "1000000012",
+                        TransactionType.USE,
+                        TransactionResultType.S,
+                        2000L,
+                        50000L,
+                        1L,
+                        LocalDateTime.now())));
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction(TransactionIdFormat.format(1L));
+        //then
+        verify(transactionRepository, times(1)).findDtoByTransactionId(1L);
+        assertEquals(TransactionType.USE, transactionDto.getTransactionType());
+        assertEquals(2000L, transactionDto.getAmount());
+        assertEquals(TransactionIdFormat.format(1L), transactionDto.getTransactionId());
+    }
+
+
+    @Test
+    @DisplayName("해당 거래 없음 - 사용 취소 실패")
+    void queryTransaction_TransactionNotFound() {
+
+        givenCacheMiss();
+        given(transactionRepository.findDtoByTransactionId(anyLong()))
+                .willReturn(Optional.empty());
+
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.queryTransaction(TransactionIdFormat.format(3L)));
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("형식이 잘못된 거래 번호 - 거래 없음")
+    void queryTransaction_InvalidTransactionId() {
+        //given
+        //when
+        AccountException accountException = assertThrows(AccountException.class,
+                () -> transactionService.queryTransaction("invalid-id"));
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
+        verify(transactionRepository, times(0)).findDtoByTransactionId(anyLong());
+    }
+
+    @Test
+    @DisplayName("V4 이전 UUID 거래 번호로 조회")
+    void queryTransaction_legacyTransactionId() {
+        //given
+        String legacyTransactionId = "0123456789abcdef0123456789abcdef";
+        given(transactionRepository.findDtoByLegacyTransactionId(legacyTransactionId))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(1000L)
+                        .build()));
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction(legacyTransactionId);
+        //then
+        assertEquals("1000000000", transactionDto.getAccountNumber());
+        assertEquals(1000L, transactionDto.getAmount());
+        verify(transactionRepository, times(0)).findDtoByTransactionId(anyLong());
+    }
+
+    @Test
+    @DisplayName("V4 이전 UUID 거래 번호로 사용 취소")
+    void cancelBalance_legacyTransactionId() {
+        //given
+        String legacyTransactionId = "0123456789abcdef0123456789abcdef";
         AccountUser user = AccountUser.builder()
                 .id(12L)
                 .name("pobi")
                 .build();
         Account account = Account.builder()
-                .id(15L)
                 .accountUser(user)
                 .balance(9000L)
                 .accountNumber("1000000012")
                 .accountStatus(AccountStatus.IN_USE)
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(Transaction.builder()
-                                .id(1L)
-                                .transactionType(TransactionType.USE)
-                                .transactionResultType(TransactionResultType.S)
-                                .account(account)
-                                .amount(2000L)
-                                .balanceSanpshot(50000L)
-                                .transactionId("transactionId")
-                                .transactedAt(LocalDateTime.now())
-                        .build()));
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(TransactionType.USE)
+                .transactionResultType(TransactionResultType.S)
+                .amount(1000L)
+                .balanceSanpshot(9000L)
+                .transactionId(2L)
+                .legacyTransactionId(legacyTransactionId)
+                .transactedAt(LocalDateTime.now())
+                .build();
+        given(transactionRepository.findByLegacyTransactionId(legacyTransactionId))
+                .willReturn(Optional.of(transaction));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
         //when
-        TransactionDto transactionDto = transactionService.queryTransaction("transactionId");
+        TransactionDto transactionDto = transactionService.cancelBalance(
+                legacyTransactionId, "1000000012", 1000L);
         //then
-        assertEquals(TransactionType.USE, transactionDto.getTransactionType());
-        assertEquals(2000L, transactionDto.getAmount());
+        assertEquals(TransactionType.CANCEL, transactionDto.getTransactionType());
+        assertEquals(10000L, transactionDto.getBalanceSanpshot());
+        verify(transactionRepository, times(0)).findByTransactionId(anyLong());
     }
 
-
     @Test
-    @DisplayName("해당 거래 없음 - 사용 취소 실패")
-    void queryTransaction_TransactionNotFound() {
-
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.empty());
+    @DisplayName("조건부 UPDATE 로 잔액 사용")
+    void useBalance_atomicSql() {
+        //given
+        accountProperties.getBalance().setStrategy(BalanceStrategy.ATOMIC_SQL);
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .balance(9000L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(accountRepository.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(1);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(12L, "1000000012", 1000L);
+        //then
+        verify(accountUserRepository, times(0)).findById(anyLong());
+        assertEquals(TransactionResultType.S, transactionDto.getTransactionResultType());
+        assertEquals(9000L, transactionDto.getBalanceSanpshot());
+    }
 
+    @Test
+    @DisplayName("조건부 UPDATE 실패 시 원인 조회 - 잔액 초과")
+    void useBalance_atomicSql_overBalance() {
+        //given
+        accountProperties.getBalance().setStrategy(BalanceStrategy.ATOMIC_SQL);
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        given(accountRepository.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(0);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user)
+                        .balance(100L)
+                        .accountNumber("1000000012")
+                        .accountStatus(AccountStatus.IN_USE)
+                        .build()));
         //when
         AccountException accountException = assertThrows(AccountException.class,
-                () -> transactionService.queryTransaction("testTransactionId"));
+                () -> transactionService.useBalance(12L, "1000000012", 1000L));
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, accountException.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
 
+    @Test
+    @DisplayName("조건부 UPDATE 로 잔액 사용 취소")
+    void cancelBalance_atomicSql() {
+        //given
+        accountProperties.getBalance().setStrategy(BalanceStrategy.ATOMIC_SQL);
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .balance(10000L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(transactionRepository.findByTransactionId(anyLong()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(TransactionType.USE)
+                        .transactionResultType(TransactionResultType.S)
+                        .amount(1000L)
+                        .transactionId(2L)
+                        .transactedAt(LocalDateTime.now())
+                        .build()));
+        given(accountRepository.cancelBalance(anyString(), anyLong()))
+                .willReturn(1);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        TransactionDto transactionDto = transactionService.cancelBalance(
+                TransactionIdFormat.format(2L), "1000000012", 1000L);
         //then
-        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, accountException.getErrorCode());
+        verify(accountRepository, times(1)).cancelBalance("1000000012", 1000L);
+        assertEquals(TransactionType.CANCEL, transactionDto.getTransactionType());
+        assertEquals(10000L, transactionDto.getBalanceSanpshot());
     }
 
+    @Test
+    @DisplayName("계좌 단위 일괄 사용 - 항목별 실패는 실패 거래로 기록")
+    void useBalanceGroup() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .balance(3000L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountUserRepository.findById(12L))
+                .willReturn(Optional.of(user));
+        given(accountUserRepository.findById(99L))
+                .willReturn(Optional.empty());
+        given(transactionRepository.saveAll(anyList()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        List<UseBalanceBatch.Result> results = transactionService.useBalanceGroup("1000000012",
+                List.of(new UseBalance.Request(12L, "1000000012", 1000L),
+                        new UseBalance.Request(12L, "1000000012", 5000L),
+                        new UseBalance.Request(99L, "1000000012", 1000L),
+                        new UseBalance.Request(12L, "1000000012", 2000L)));
+        //then
+        verify(accountUserRepository, times(1)).findById(12L);
+        verify(transactionRepository, times(1)).saveAll(anyList());
+        verify(accountListCache, times(1)).evictAfterCommit(12L);
+        assertEquals(0L, account.getBalance());
+        assertEquals(TransactionResultType.S, results.get(0).getTransactionResult());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+        assertEquals(TransactionResultType.F, results.get(1).getTransactionResult());
+        assertEquals(ErrorCode.USER_NOT_FOUND, results.get(2).getErrorCode());
+        assertEquals(TransactionResultType.S, results.get(3).getTransactionResult());
+        assertNull(results.get(3).getErrorCode());
+    }
 
+    @Test
+    @DisplayName("묶음 잔액 사용 - atomic-sql 은 단건과 같은 조건부 UPDATE 로 차감")
+    void useBalanceGroup_atomicSql() {
+        //given
+        accountProperties.getBalance().setStrategy(BalanceStrategy.ATOMIC_SQL);
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .balance(2000L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(accountRepository.useBalance(12L, "1000000012", 1000L))
+                .willReturn(1);
+        given(accountRepository.useBalance(12L, "1000000012", 5000L))
+                .willReturn(0);
+        given(accountUserRepository.findById(12L))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        List<UseBalanceBatch.Result> results = transactionService.useBalanceGroup("1000000012",
+                List.of(new UseBalance.Request(12L, "1000000012", 1000L),
+                        new UseBalance.Request(12L, "1000000012", 5000L)));
+        //then
+        verify(accountRepository, times(2)).useBalance(anyLong(), anyString(), anyLong());
+        verify(transactionRepository, times(0)).saveAll(anyList());
+        assertEquals(TransactionResultType.S, results.get(0).getTransactionResult());
+        assertNull(results.get(0).getErrorCode());
+        assertEquals(TransactionResultType.F, results.get(1).getTransactionResult());
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, results.get(1).getErrorCode());
+    }
 
+    @Test
+    @DisplayName("명령 묶음 처리 - 사용과 취소를 한 트랜잭션으로")
+    void applyBalanceCommands() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .balance(3000L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .build();
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(account));
+        given(accountRepository.findByAccountNumber("1000000099"))
+                .willReturn(Optional.empty());
+        given(accountUserRepository.findById(12L))
+                .willReturn(Optional.of(user));
+        given(transactionRepository.findAllByTransactionIdIn(Set.of(7L)))
+                .willReturn(List.of(Transaction.builder()
+                        .account(account)
+                        .amount(500L)
+                        .transactionId(7L)
+                        .transactedAt(LocalDateTime.now())
+                        .build()));
+        given(transactionRepository.saveAll(anyList()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        List<BalanceCommand.Result> results = transactionService.applyBalanceCommands(List.of(
+                BalanceCommand.use(12L, "1000000012", 1000L),
+                BalanceCommand.cancel(TransactionIdFormat.format(7L), "1000000012", 500L),
+                BalanceCommand.cancel("invalid-id", "1000000012", 500L),
+                BalanceCommand.use(12L, "1000000099", 1000L)));
+        //then
+        verify(transactionRepository, times(1)).saveAll(anyList());
+        assertEquals(2500L, account.getBalance());
+        assertTrue(results.get(0).isSuccess());
+        assertEquals(2000L, results.get(0).getTransactionDto().getBalanceSanpshot());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(TransactionType.CANCEL, results.get(1).getTransactionDto().getTransactionType());
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, results.get(2).getErrorCode());
+        assertEquals(TransactionResultType.F,
+                results.get(2).getTransactionDto().getTransactionResultType());
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, results.get(3).getErrorCode());
+        assertNull(results.get(3).getTransactionDto());
+    }
 
+    @Test
+    @DisplayName("그룹 커밋 - 만료된 잠금 보유자의 토큰은 거절하고 가장 큰 토큰으로 fencing")
+    void applyGroupCommit_staleLockToken() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("pobi")
+                .build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .balance(3000L)
+                .accountNumber("1000000012")
+                .accountStatus(AccountStatus.IN_USE)
+                .lockToken(9L)
+                .build();
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(account));
+        given(accountUserRepository.findById(12L))
+                .willReturn(Optional.of(user));
+        given(transactionRepository.saveAll(anyList()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        //when
+        List<BalanceCommand.Result> results = transactionService.applyGroupCommit(List.of(
+                BalanceCommand.use(12L, "1000000012", 1000L).withLockToken(5L),
+                BalanceCommand.use(12L, "1000000012", 1000L).withLockToken(10L)));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, results.get(0).getErrorCode());
+        assertNull(results.get(0).getTransactionDto());
+        assertTrue(results.get(1).isSuccess());
+        assertEquals(2000L, account.getBalance());
+        verify(lockFencing, times(1)).fenceBeforeCommit(account, 10L);
+    }
 
+    @SuppressWarnings("unchecked")
+    private void givenCacheMiss() {
+        given(transactionCache.get(anyLong(), any()))
+                .willAnswer(invocation -> ((Function<Long, TransactionDto>) invocation.getArgument(1))
+                        .apply(invocation.getArgument(0)));
+    }
 
-}
\ No newline at end of file
+}